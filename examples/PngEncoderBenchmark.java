@@ -0,0 +1,93 @@
+import io.github.purecaptcha.CaptchaFactory;
+import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.model.SliderCaptchaResult;
+import io.github.purecaptcha.util.CaptchaPalette;
+import io.github.purecaptcha.util.PngEncoder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * PNG 编码性能对比
+ *
+ * 使用库自身生成的 200x50(默认字符验证码)、200x80(示例项目字符验证码)和
+ * 350x200(滑动验证码背景)图像,对比 ImageIO 与 PngEncoder 各压缩级别、滤波方式的
+ * 单次编码耗时和输出大小,字符验证码另外对比 PNG-8 索引色输出。
+ */
+public class PngEncoderBenchmark {
+
+    private static final int WARMUP = 1000;
+    private static final int ITERATIONS = 1000;
+
+    private static final int[] LEVELS = {1, 4, 6};
+
+    public static void main(String[] args) throws IOException {
+        BufferedImage[] images = {
+            CaptchaFactory.create(CaptchaType.ALPHANUMERIC).getImage(),
+            CaptchaFactory.create(CaptchaType.ALPHANUMERIC,
+                    CaptchaConfig.builder().width(200).height(80).build()).getImage(),
+            ((SliderCaptchaResult) CaptchaFactory.create(CaptchaType.SLIDER,
+                    CaptchaConfig.builder().width(350).height(200).build())).getBackgroundImage()
+        };
+
+        System.out.println("【PNG编码性能对比】预热" + WARMUP + "次,测量" + ITERATIONS + "次");
+        System.out.println();
+        System.out.printf("%-9s %-22s %12s %10s%n", "尺寸", "编码方式", "平均耗时(ms)", "大小(字节)");
+
+        for (BufferedImage image : images) {
+            String size = image.getWidth() + "x" + image.getHeight();
+
+            for (int i = 0; i < WARMUP; i++) {
+                imageIo(image);
+            }
+            long start = System.nanoTime();
+            int length = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                length = imageIo(image);
+            }
+            print(size, "ImageIO", start, length);
+
+            for (int level : LEVELS) {
+                for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+                    for (int i = 0; i < WARMUP; i++) {
+                        PngEncoder.encode(image, level, filter);
+                    }
+                    start = System.nanoTime();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        length = PngEncoder.encode(image, level, filter).length;
+                    }
+                    print(size, "PngEncoder L" + level + " " + filter, start, length);
+                }
+            }
+
+            // 滑动验证码背景为照片类图像,不适合索引色
+            if (image.getHeight() < 200) {
+                for (int level : LEVELS) {
+                    for (int i = 0; i < WARMUP; i++) {
+                        PngEncoder.encodeIndexed(image, CaptchaPalette.MAX_COLORS, level);
+                    }
+                    start = System.nanoTime();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        length = PngEncoder.encodeIndexed(image, CaptchaPalette.MAX_COLORS, level).length;
+                    }
+                    print(size, "PNG-8 L" + level, start, length);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    private static int imageIo(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", out);
+        return out.size();
+    }
+
+    private static void print(String size, String name, long start, int length) {
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+        System.out.printf("%-9s %-22s %12.3f %10d%n", size, name, avgMillis, length);
+    }
+}
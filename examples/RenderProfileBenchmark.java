@@ -0,0 +1,62 @@
+import io.github.purecaptcha.CaptchaFactory;
+import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.RenderProfile;
+import io.github.purecaptcha.core.CaptchaType;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 渲染质量档位性能对比
+ *
+ * 对每种验证码类型分别使用 FAST / BALANCED / QUALITY 档位生成验证码,
+ * 输出单个验证码的平均耗时,并保存一张样例图片用于对比视觉效果。
+ */
+public class RenderProfileBenchmark {
+
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 2000;
+
+    private static final CaptchaType[] TYPES = {
+        CaptchaType.ALPHANUMERIC, CaptchaType.ARITHMETIC, CaptchaType.CHINESE
+    };
+
+    public static void main(String[] args) throws IOException {
+        File outputDir = new File("examples/render-profile-output");
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        System.out.println("【渲染档位性能对比】预热" + WARMUP + "次,测量" + ITERATIONS + "次");
+        System.out.println();
+        System.out.printf("%-14s %-10s %12s %12s%n", "类型", "档位", "平均耗时(ms)", "吞吐量(个/秒)");
+
+        for (CaptchaType type : TYPES) {
+            for (RenderProfile profile : RenderProfile.values()) {
+                CaptchaConfig config = CaptchaConfig.builder()
+                        .renderProfile(profile)
+                        .build();
+
+                for (int i = 0; i < WARMUP; i++) {
+                    CaptchaFactory.create(type, config);
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    CaptchaFactory.create(type, config);
+                }
+                double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+
+                System.out.printf("%-14s %-10s %12.3f %12.0f%n",
+                        type, profile, avgMillis, 1000 / avgMillis);
+
+                ImageIO.write(CaptchaFactory.create(type, config).getImage(), "png",
+                        new File(outputDir, type.name().toLowerCase() + "_" + profile.name().toLowerCase() + ".png"));
+            }
+        }
+
+        System.out.println();
+        System.out.println("样例图片已保存到: " + outputDir.getPath());
+    }
+}
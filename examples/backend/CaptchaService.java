@@ -6,13 +6,10 @@ import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaType;
 import io.github.purecaptcha.model.SliderCaptchaResult;
 import io.github.purecaptcha.util.BuiltinSliderBackground;
+import io.github.purecaptcha.util.DataUriEncoder;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -233,10 +230,10 @@ public class CaptchaService {
      */
     private Map<String, Object> generateSliderResponse(SliderCaptchaResult sliderCaptcha) throws IOException {
         // 转换背景图为Base64
-        String backgroundData = imageToBase64(sliderCaptcha.getBackgroundImage(), "PNG");
+        String backgroundData = DataUriEncoder.encodePng(sliderCaptcha.getBackgroundImage());
         
         // 转换拼图块为Base64
-        String sliderData = imageToBase64(sliderCaptcha.getSliderImage(), "PNG");
+        String sliderData = DataUriEncoder.encodePng(sliderCaptcha.getSliderImage());
 
         // 返回结果
         Map<String, Object> result = new HashMap<>();
@@ -251,33 +248,12 @@ public class CaptchaService {
      * 生成普通图片验证码响应
      */
     private String generateImageResponse(Captcha captcha, CaptchaType type) throws IOException {
-        byte[] imageBytes;
-        String mimeType;
-
         if (type == CaptchaType.ANIMATED_GIF) {
             // GIF 动画
-            imageBytes = captcha.getImageData();
-            mimeType = "image/gif";
-        } else {
-            // 静态图片
-            BufferedImage image = captcha.getImage();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-            imageBytes = baos.toByteArray();
-            mimeType = "image/png";
+            return DataUriEncoder.encode(captcha.getImageData(), "image/gif");
         }
-
-        return "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(imageBytes);
-    }
-
-    /**
-     * 图片转Base64
-     */
-    private String imageToBase64(BufferedImage image, String format) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, format, baos);
-        return "data:image/" + format.toLowerCase() + ";base64," + 
-               Base64.getEncoder().encodeToString(baos.toByteArray());
+        // 静态图片:PNG 直接编码为 data URI,不经过中间字节数组
+        return DataUriEncoder.encodePng(captcha.getImage());
     }
 }
 
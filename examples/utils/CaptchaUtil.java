@@ -5,11 +5,9 @@ import io.github.purecaptcha.config.CaptchaConfig;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaType;
 import io.github.purecaptcha.model.SliderCaptchaResult;
+import io.github.purecaptcha.util.PngEncoder;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -132,7 +130,7 @@ public class CaptchaUtil {
             result.put("sliderImageBase64", imageToBase64(sliderResult.getSliderImage()));
             result.put("sliderY", sliderResult.getSliderY());
         } else {
-            result.put("imageBase64", imageToBase64(captcha.getImage()));
+            result.put("imageBase64", indexedImageToBase64(captcha.getImage()));
         }
         
         // 开发调试：返回答案（生产环境应删除此行）
@@ -334,13 +332,14 @@ public class CaptchaUtil {
      * 将BufferedImage转换为Base64字符串
      */
     private static String imageToBase64(BufferedImage image) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            ImageIO.write(image, "PNG", baos);
-            byte[] imageBytes = baos.toByteArray();
-            return Base64.getEncoder().encodeToString(imageBytes);
-        } catch (IOException e) {
-            throw new RuntimeException("图片转换失败", e);
-        }
+        return Base64.getEncoder().encodeToString(PngEncoder.encode(image));
+    }
+
+    /**
+     * 将文字类验证码图片转换为 PNG-8 索引色 Base64 字符串(体积约为真彩色的一半)
+     */
+    private static String indexedImageToBase64(BufferedImage image) {
+        return Base64.getEncoder().encodeToString(PngEncoder.encodeIndexed(image));
     }
     
     /**
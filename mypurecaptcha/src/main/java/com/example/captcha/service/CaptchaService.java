@@ -4,18 +4,16 @@ import io.github.purecaptcha.CaptchaFactory;
 import io.github.purecaptcha.config.CaptchaConfig;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.ImageFormat;
 import io.github.purecaptcha.model.SliderCaptchaResult;
+import io.github.purecaptcha.util.DataUriEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -129,8 +127,9 @@ public class CaptchaService {
             redisTemplate.opsForValue().set(redisKey, simpleCaptchaData, expireMinutes, TimeUnit.MINUTES);
 
             // 返回图片数据给前端
-            String backgroundData = convertImageToBase64(sliderCaptcha.getBackgroundImage(), "PNG");
-            String sliderData = convertImageToBase64(sliderCaptcha.getSliderImage(), "PNG");
+            // 背景图为照片类图像,JPEG 体积远小于 PNG;拼图块需要透明通道,仍使用 PNG(直接流式编码为 data URI)
+            String backgroundData = toDataUri(sliderCaptcha.getEncoded(ImageFormat.JPEG), ImageFormat.JPEG);
+            String sliderData = DataUriEncoder.encodePng(sliderCaptcha.getSliderImage());
 
             Map<String, Object> result = new HashMap<>();
             result.put("backgroundImage", backgroundData);
@@ -262,26 +261,15 @@ public class CaptchaService {
 
     // ==================== 辅助方法 ====================
 
-    private String convertImageToBase64(BufferedImage image, String format) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(image, format, baos);
-        return "data:image/" + format.toLowerCase() + ";base64," + Base64.getEncoder().encodeToString(baos.toByteArray());
+    private String toDataUri(byte[] imageBytes, ImageFormat format) {
+        return DataUriEncoder.encode(imageBytes, format.getMimeType());
     }
 
-    private String convertCaptchaToBase64(Captcha captcha, CaptchaType type) throws IOException {
-        byte[] imageBytes;
-        String mimeType;
-
+    private String convertCaptchaToBase64(Captcha captcha, CaptchaType type) {
         if (type == CaptchaType.ANIMATED_GIF) {
-            imageBytes = captcha.getImageData();
-            mimeType = "image/gif";
-        } else {
-            BufferedImage image = captcha.getImage();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(image, "PNG", baos);
-            imageBytes = baos.toByteArray();
-            mimeType = "image/png";
+            return toDataUri(captcha.getEncoded(ImageFormat.GIF), ImageFormat.GIF);
         }
-        return "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(imageBytes);
+        // 文字类验证码颜色少,使用 PNG-8 索引色体积约减半;PNG 编码结果边编码边写入 Base64,不生成中间字节数组
+        return DataUriEncoder.encodeIndexedPng(captcha.getImage());
     }
 }
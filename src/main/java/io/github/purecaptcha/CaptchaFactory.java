@@ -4,43 +4,106 @@ import io.github.purecaptcha.config.CaptchaConfig;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.RenderExecutor;
+import io.github.purecaptcha.core.RenderTarget;
 import io.github.purecaptcha.generator.AlphanumericCaptchaGenerator;
 import io.github.purecaptcha.generator.AnimatedGifCaptchaGenerator;
 import io.github.purecaptcha.generator.ArithmeticCaptchaGenerator;
 import io.github.purecaptcha.generator.ChineseCaptchaGenerator;
 import io.github.purecaptcha.generator.SliderCaptchaGenerator;
+import io.github.purecaptcha.util.SliderBackgroundCache;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 验证码工厂类
  * <p>
  * 提供统一的验证码生成入口
+ * <p>
+ * 每种验证码类型对应一个共享的生成器实例,生成器必须线程安全(内置生成器均无状态)。
+ * 类加载时先注册内置生成器,再通过 {@link ServiceLoader} 发现
+ * {@code META-INF/services/io.github.purecaptcha.core.CaptchaGenerator} 中声明的自定义生成器,
+ * 自定义生成器按 {@link CaptchaGenerator#getSupportedType()} 覆盖同类型的内置实现。
+ * 也可以在运行时调用 {@link #register(CaptchaGenerator)} 替换。
+ * <p>
+ * 注册表采用写时复制,查找生成器只有一次 volatile 读和一次 EnumMap 查询,不加锁也不分配对象。
  *
  * @author PureCaptcha
  * @version 1.0.0
  */
 public class CaptchaFactory {
 
+    // 生成器注册表(写时复制,发布后不再修改)
+    private static volatile Map<CaptchaType, CaptchaGenerator> generators = loadGenerators();
+
     /**
-     * 根据类型创建验证码生成器
+     * 获取验证码类型对应的生成器
      *
      * @param type 验证码类型
-     * @return 验证码生成器
+     * @return 共享的验证码生成器
      */
     public static CaptchaGenerator getGenerator(CaptchaType type) {
-        switch (type) {
-            case ALPHANUMERIC:
-                return new AlphanumericCaptchaGenerator();
-            case ARITHMETIC:
-                return new ArithmeticCaptchaGenerator();
-            case CHINESE:
-                return new ChineseCaptchaGenerator();
-            case ANIMATED_GIF:
-                return new AnimatedGifCaptchaGenerator();
-            case SLIDER:
-                return new SliderCaptchaGenerator();
-            default:
-                throw new IllegalArgumentException("不支持的验证码类型: " + type);
+        CaptchaGenerator generator = generators.get(type);
+        if (generator == null) {
+            throw new IllegalArgumentException("不支持的验证码类型: " + type);
+        }
+        return generator;
+    }
+
+    /**
+     * 注册验证码生成器,替换同类型的已有生成器
+     * <p>
+     * 生成器会被所有线程共享,必须线程安全
+     *
+     * @param generator 验证码生成器
+     */
+    public static synchronized void register(CaptchaGenerator generator) {
+        if (generator == null || generator.getSupportedType() == null) {
+            throw new IllegalArgumentException("生成器及其支持的类型不能为空");
         }
+        Map<CaptchaType, CaptchaGenerator> copy = new EnumMap<>(generators);
+        copy.put(generator.getSupportedType(), generator);
+        generators = copy;
+    }
+
+    /**
+     * 注册内置生成器,并加载 ServiceLoader 声明的自定义生成器
+     */
+    private static Map<CaptchaType, CaptchaGenerator> loadGenerators() {
+        Map<CaptchaType, CaptchaGenerator> map = new EnumMap<>(CaptchaType.class);
+        map.put(CaptchaType.ALPHANUMERIC, new AlphanumericCaptchaGenerator());
+        map.put(CaptchaType.ARITHMETIC, new ArithmeticCaptchaGenerator());
+        map.put(CaptchaType.CHINESE, new ChineseCaptchaGenerator());
+        map.put(CaptchaType.ANIMATED_GIF, new AnimatedGifCaptchaGenerator());
+        map.put(CaptchaType.SLIDER, new SliderCaptchaGenerator());
+
+        Iterator<CaptchaGenerator> providers =
+                ServiceLoader.load(CaptchaGenerator.class, CaptchaFactory.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!providers.hasNext()) {
+                    break;
+                }
+                CaptchaGenerator generator = providers.next();
+                if (generator.getSupportedType() != null) {
+                    map.put(generator.getSupportedType(), generator);
+                }
+            } catch (ServiceConfigurationError e) {
+                // 单个插件配置错误不影响内置生成器
+                System.out.println("警告：无法加载自定义验证码生成器，" + e.getMessage());
+            }
+        }
+        return map;
     }
 
     /**
@@ -63,4 +126,160 @@ public class CaptchaFactory {
     public static Captcha create(CaptchaType type, CaptchaConfig config) {
         return getGenerator(type).generate(config);
     }
+
+    /**
+     * 在当前线程复用的画布上生成验证码
+     * <p>
+     * 返回的验证码图像只在当前线程下一次调用本方法之前有效,适合生成后立即编码输出的场景
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @return 验证码对象
+     * @see RenderTarget#forCurrentThread()
+     */
+    public static Captcha createReusing(CaptchaType type, CaptchaConfig config) {
+        return getGenerator(type).generateInto(config, RenderTarget.forCurrentThread());
+    }
+
+    /**
+     * 使用默认配置异步生成验证码
+     *
+     * @param type 验证码类型
+     * @return 异步结果
+     */
+    public static CompletableFuture<Captcha> createAsync(CaptchaType type) {
+        CaptchaGenerator generator = getGenerator(type);
+        return RenderExecutor.submit(generator::generate, RenderExecutor.shared());
+    }
+
+    /**
+     * 在共享绘制线程池上异步生成验证码
+     * <p>
+     * 绘制线程数默认等于CPU核数,请求线程不参与光栅化,适合 Servlet 线程或虚拟线程较多的场景
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @return 异步结果
+     * @see RenderExecutor
+     */
+    public static CompletableFuture<Captcha> createAsync(CaptchaType type, CaptchaConfig config) {
+        return getGenerator(type).generateAsync(config);
+    }
+
+    /**
+     * 在指定线程池上异步生成验证码
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @param executor 绘制线程池
+     * @return 异步结果
+     */
+    public static CompletableFuture<Captcha> createAsync(CaptchaType type, CaptchaConfig config,
+                                                         Executor executor) {
+        return getGenerator(type).generateAsync(config, executor);
+    }
+
+    /**
+     * 在公共 ForkJoinPool 上并行批量生成验证码
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @param count 生成数量
+     * @return 验证码列表(顺序无意义)
+     * @see #createBatch(CaptchaType, CaptchaConfig, int, ForkJoinPool)
+     */
+    public static List<Captcha> createBatch(CaptchaType type, CaptchaConfig config, int count) {
+        return createBatch(type, config, count, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定 ForkJoinPool 上并行批量生成验证码
+     * <p>
+     * 适合预填充验证码存储和压测。整批共享的准备工作只做一次:编译配置(字符集、字体和度量),
+     * 滑动验证码还会预先解码并缩放背景图片,之后按区间拆分任务并行生成。
+     * 调用线程也参与生成,直到整批完成后返回。
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @param count 生成数量
+     * @param pool 线程池
+     * @return 验证码列表(顺序无意义)
+     */
+    public static List<Captcha> createBatch(CaptchaType type, CaptchaConfig config, int count,
+                                           ForkJoinPool pool) {
+        if (config == null || pool == null) {
+            throw new IllegalArgumentException("config和pool不能为空");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("count不能小于0");
+        }
+        CaptchaGenerator generator = getGenerator(type);
+        prepareBatch(type, config);
+
+        Captcha[] results = new Captcha[count];
+        // 每个叶子任务至少生成一个,每个线程约分到4个叶子任务以平衡负载
+        int threshold = Math.max(1, count / (pool.getParallelism() * 4));
+        pool.invoke(new BatchTask(generator, config, results, 0, count, threshold));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 整批共享的准备工作
+     */
+    private static void prepareBatch(CaptchaType type, CaptchaConfig config) {
+        config.compile();
+
+        if (type == CaptchaType.SLIDER) {
+            int width = config.getWidth();
+            int height = config.getHeight();
+            String imagePath = config.getSliderBackgroundImagePath();
+            if (imagePath != null && !imagePath.trim().isEmpty()
+                    && SliderBackgroundCache.preloadFile(imagePath, width, height)) {
+                // 自定义背景可用时生成器不会使用内置背景
+                return;
+            }
+            if (config.getBuiltinBackground() != null) {
+                SliderBackgroundCache.preloadBuiltin(config.getBuiltinBackground(), width, height);
+            } else {
+                SliderBackgroundCache.preloadBuiltin(width, height);
+            }
+        }
+    }
+
+    /**
+     * 批量生成任务:按区间二分,区间不大于阈值时顺序生成
+     */
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CaptchaGenerator generator;
+        private final CaptchaConfig config;
+        private final Captcha[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BatchTask(CaptchaGenerator generator, CaptchaConfig config, Captcha[] results,
+                  int from, int to, int threshold) {
+            this.generator = generator;
+            this.config = config;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = generator.generate(config);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchTask(generator, config, results, from, mid, threshold),
+                      new BatchTask(generator, config, results, mid, to, threshold));
+        }
+    }
 }
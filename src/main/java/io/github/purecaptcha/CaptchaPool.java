@@ -0,0 +1,415 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.core.Captcha;
+import io.github.purecaptcha.core.CaptchaType;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 验证码预生成池
+ * <p>
+ * 为每个 (验证码类型, 配置) 组合维护一个有界队列,由后台线程补充到低水位以上,
+ * 请求线程命中时只需一次出队操作,未命中时回退到同步生成。
+ * <p>
+ * 配置对象按引用区分,同一业务场景应复用同一个 {@link CaptchaConfig} 实例。
+ * 每次请求都新建配置会让每个请求占用一个新队列,因此队列数量有上限(默认16个),
+ * 超出时淘汰最久未使用的队列并丢弃其中的验证码,可通过 {@link Stats#getEvictions()} 观察。
+ * 每个验证码只会被取出一次,不会重复下发。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class CaptchaPool implements AutoCloseable {
+
+    // 默认参数
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_LOW_WATER_MARK = 16;
+    private static final int DEFAULT_MAX_SLOTS = 16;
+
+    private final int capacity;
+    private final int lowWaterMark;
+    private final int maxSlots;
+    private final ExecutorService refillExecutor;
+    private final ConcurrentMap<PoolKey, Slot> slots = new ConcurrentHashMap<>();
+
+    // 统计信息
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong refillFailures = new AtomicLong();
+    private final AtomicLong totalRefillLagNanos = new AtomicLong();
+    private final AtomicLong maxRefillLagNanos = new AtomicLong();
+
+    /**
+     * 使用默认参数创建验证码池
+     * <p>
+     * 每个队列容量64,低水位16,最多16个队列,后台线程数为CPU核数的一半(至少1个)
+     */
+    public CaptchaPool() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOW_WATER_MARK,
+             Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    /**
+     * 创建验证码池
+     *
+     * @param capacity 每个队列的最大容量
+     * @param lowWaterMark 低水位,队列长度低于该值时触发后台补充
+     * @param workerThreads 后台补充线程数
+     */
+    public CaptchaPool(int capacity, int lowWaterMark, int workerThreads) {
+        this(capacity, lowWaterMark, workerThreads, DEFAULT_MAX_SLOTS);
+    }
+
+    /**
+     * 创建验证码池
+     *
+     * @param capacity 每个队列的最大容量
+     * @param lowWaterMark 低水位,队列长度低于该值时触发后台补充
+     * @param workerThreads 后台补充线程数
+     * @param maxSlots 最多保留的 (类型, 配置) 队列数,超出时淘汰最久未使用的队列
+     */
+    public CaptchaPool(int capacity, int lowWaterMark, int workerThreads, int maxSlots) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity必须大于0");
+        }
+        if (lowWaterMark < 0 || lowWaterMark > capacity) {
+            throw new IllegalArgumentException("lowWaterMark必须在0到capacity之间");
+        }
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("workerThreads必须大于0");
+        }
+        if (maxSlots < 1) {
+            throw new IllegalArgumentException("maxSlots必须大于0");
+        }
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.maxSlots = maxSlots;
+        this.refillExecutor = new ThreadPoolExecutor(workerThreads, workerThreads,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                new WorkerThreadFactory());
+    }
+
+    /**
+     * 使用默认配置获取验证码
+     *
+     * @param type 验证码类型
+     * @return 验证码对象
+     */
+    public Captcha take(CaptchaType type) {
+        return take(type, null);
+    }
+
+    /**
+     * 获取验证码
+     * <p>
+     * 命中时直接从队列取出;未命中时在当前线程同步生成,并触发后台补充
+     *
+     * @param type 验证码类型
+     * @param config 配置对象,为null时使用生成器的默认配置
+     * @return 验证码对象
+     */
+    public Captcha take(CaptchaType type, CaptchaConfig config) {
+        Slot slot = slotFor(type, config);
+        Captcha captcha = slot.queue.poll();
+
+        if (captcha != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        if (slot.queue.size() < lowWaterMark) {
+            scheduleRefill(slot);
+        }
+
+        return captcha != null ? captcha : slot.generate();
+    }
+
+    /**
+     * 预热指定组合,立即在后台填满队列
+     *
+     * @param type 验证码类型
+     * @param config 配置对象,为null时使用生成器的默认配置
+     */
+    public void warmUp(CaptchaType type, CaptchaConfig config) {
+        scheduleRefill(slotFor(type, config));
+    }
+
+    /**
+     * 获取指定组合当前可用的验证码数量
+     *
+     * @param type 验证码类型
+     * @param config 配置对象
+     * @return 队列中的验证码数量
+     */
+    public int available(CaptchaType type, CaptchaConfig config) {
+        Slot slot = slots.get(new PoolKey(type, config));
+        return slot == null ? 0 : slot.queue.size();
+    }
+
+    /**
+     * 获取统计信息快照
+     *
+     * @return 统计信息
+     */
+    public Stats getStats() {
+        long refillCount = refills.get();
+        return new Stats(hits.get(), misses.get(), refillCount, evictions.get(), refillFailures.get(),
+                refillCount == 0 ? 0 : totalRefillLagNanos.get() / refillCount,
+                maxRefillLagNanos.get());
+    }
+
+    /**
+     * 关闭后台补充线程,已入队的验证码仍可取出
+     */
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    private Slot slotFor(CaptchaType type, CaptchaConfig config) {
+        if (type == null) {
+            throw new IllegalArgumentException("验证码类型不能为空");
+        }
+        PoolKey key = new PoolKey(type, config);
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            Slot created = new Slot(type, config, capacity);
+            slot = slots.putIfAbsent(key, created);
+            if (slot == null) {
+                slot = created;
+                evictIfFull();
+            }
+        }
+        slot.lastUsed = System.nanoTime();
+        return slot;
+    }
+
+    /**
+     * 队列数超过上限时淘汰最久未使用的队列(只在新建队列时执行,队列数很少,线性查找即可)
+     */
+    private void evictIfFull() {
+        while (slots.size() > maxSlots) {
+            PoolKey eldestKey = null;
+            Slot eldest = null;
+            for (Map.Entry<PoolKey, Slot> entry : slots.entrySet()) {
+                Slot candidate = entry.getValue();
+                if (eldest == null || candidate.lastUsed - eldest.lastUsed < 0) {
+                    eldestKey = entry.getKey();
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            if (slots.remove(eldestKey, eldest)) {
+                // 正在进行的补充任务看到标记后停止,已生成的验证码随队列一起丢弃
+                eldest.evicted = true;
+                eldest.queue.clear();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 触发后台补充,同一队列同时最多只有一个补充任务
+     */
+    private void scheduleRefill(final Slot slot) {
+        if (!slot.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        final long scheduledAt = System.nanoTime();
+        try {
+            refillExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refill(slot);
+                    } finally {
+                        recordRefillLag(System.nanoTime() - scheduledAt);
+                        slot.refilling.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 池已关闭,保持同步生成即可
+            slot.refilling.set(false);
+        }
+    }
+
+    private void refill(Slot slot) {
+        while (slot.queue.size() < capacity && !slot.evicted && !Thread.currentThread().isInterrupted()) {
+            Captcha captcha;
+            try {
+                captcha = slot.generate();
+            } catch (RuntimeException e) {
+                // 配置无法生成时停止本次补充,请求线程同步生成时会得到同样的异常
+                refillFailures.incrementAndGet();
+                if (!slot.failureReported) {
+                    slot.failureReported = true;
+                    System.out.println("警告：验证码池后台补充失败(" + slot.type + ")，" + e);
+                }
+                break;
+            }
+            if (!slot.queue.offer(captcha)) {
+                break;
+            }
+        }
+    }
+
+    private void recordRefillLag(long lagNanos) {
+        refills.incrementAndGet();
+        totalRefillLagNanos.addAndGet(lagNanos);
+        long max;
+        do {
+            max = maxRefillLagNanos.get();
+        } while (lagNanos > max && !maxRefillLagNanos.compareAndSet(max, lagNanos));
+    }
+
+    /**
+     * 验证码池统计信息
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long refills;
+        private final long evictions;
+        private final long refillFailures;
+        private final long avgRefillLagNanos;
+        private final long maxRefillLagNanos;
+
+        Stats(long hits, long misses, long refills, long evictions, long refillFailures,
+              long avgRefillLagNanos, long maxRefillLagNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.refills = refills;
+            this.evictions = evictions;
+            this.refillFailures = refillFailures;
+            this.avgRefillLagNanos = avgRefillLagNanos;
+            this.maxRefillLagNanos = maxRefillLagNanos;
+        }
+
+        /** 命中次数(直接从队列取出) */
+        public long getHits() { return hits; }
+
+        /** 未命中次数(请求线程同步生成) */
+        public long getMisses() { return misses; }
+
+        /** 已完成的补充任务数 */
+        public long getRefills() { return refills; }
+
+        /** 因队列数超过上限而被淘汰的队列数(持续增长说明配置对象没有被复用) */
+        public long getEvictions() { return evictions; }
+
+        /** 后台生成验证码失败的次数(不为0说明配置无法生成,所有请求都会未命中) */
+        public long getRefillFailures() { return refillFailures; }
+
+        /** 补充任务从触发到填满的平均耗时(纳秒) */
+        public long getAvgRefillLagNanos() { return avgRefillLagNanos; }
+
+        /** 补充任务从触发到填满的最大耗时(纳秒) */
+        public long getMaxRefillLagNanos() { return maxRefillLagNanos; }
+
+        /**
+         * 命中率
+         *
+         * @return 命中率(0.0-1.0),没有请求时返回0
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CaptchaPool.Stats{hits=%d, misses=%d, hitRate=%.2f%%, refills=%d, "
+                            + "evictions=%d, refillFailures=%d, avgRefillLag=%.2fms, maxRefillLag=%.2fms}",
+                    hits, misses, getHitRate() * 100, refills, evictions, refillFailures,
+                    avgRefillLagNanos / 1_000_000.0, maxRefillLagNanos / 1_000_000.0);
+        }
+    }
+
+    /**
+     * 单个 (类型, 配置) 组合的队列
+     */
+    private static class Slot {
+        final CaptchaType type;
+        final CaptchaConfig config;
+        final BlockingQueue<Captcha> queue;
+        final AtomicBoolean refilling = new AtomicBoolean(false);
+        volatile long lastUsed;
+        volatile boolean evicted;
+        volatile boolean failureReported;
+
+        Slot(CaptchaType type, CaptchaConfig config, int capacity) {
+            this.type = type;
+            this.config = config;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.lastUsed = System.nanoTime();
+        }
+
+        Captcha generate() {
+            return config == null ? CaptchaFactory.create(type) : CaptchaFactory.create(type, config);
+        }
+    }
+
+    /**
+     * 队列键:类型 + 配置实例(按引用比较)
+     */
+    private static class PoolKey {
+        final CaptchaType type;
+        final CaptchaConfig config;
+
+        PoolKey(CaptchaType type, CaptchaConfig config) {
+            this.type = type;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey) o;
+            return type == other.type && config == other.config;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + System.identityHashCode(config);
+        }
+    }
+
+    /**
+     * 后台补充线程工厂(守护线程,不阻止JVM退出)
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "purecaptcha-pool-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
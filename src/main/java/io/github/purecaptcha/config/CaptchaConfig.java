@@ -1,6 +1,7 @@
 package io.github.purecaptcha.config;
 
 import io.github.purecaptcha.util.BuiltinSliderBackground;
+import io.github.purecaptcha.util.RandomSource;
 
 import java.awt.Color;
 import java.awt.Font;
@@ -41,12 +42,23 @@ public class CaptchaConfig {
     private final Font font;
     private final int interferenceLineCount;
     private final int noisePointCount;
+    private final boolean glyphSprites;                     // 使用预旋转字形精灵绘制文字
+    private final boolean backgroundTiles;                  // 使用预渲染背景图块
+    private final boolean gifFixedPalette;                  // GIF使用固定调色板
+    private final boolean gifStaticBackground;              // GIF背景只绘制一次,编码差分帧
+    private final RenderMode renderMode;                    // 噪点、干扰线和镂空文字的绘制模式
+    private final RenderProfile renderProfile;              // 渲染质量档位
+    private final RandomSource secretRandom;                // 答案等秘密随机数来源
+    private final RandomSource decorationRandom;            // 噪点、颜色等装饰随机数来源
 
     // 滑动拼图配置
     private final String sliderBackgroundImagePath;        // 自定义背景图片路径
     private final BuiltinSliderBackground builtinBackground; // 内置背景图片
     private final int sliderTolerance;                      // 滑动验证容差(像素)
 
+    // 编译结果(首次调用 compile 时创建)
+    private volatile CaptchaProfile profile;
+
     private CaptchaConfig(Builder builder) {
         this.width = builder.width;
         this.height = builder.height;
@@ -63,6 +75,14 @@ public class CaptchaConfig {
         this.font = builder.font;
         this.interferenceLineCount = builder.interferenceLineCount;
         this.noisePointCount = builder.noisePointCount;
+        this.glyphSprites = builder.glyphSprites;
+        this.backgroundTiles = builder.backgroundTiles;
+        this.gifFixedPalette = builder.gifFixedPalette;
+        this.gifStaticBackground = builder.gifStaticBackground;
+        this.renderMode = builder.renderMode;
+        this.renderProfile = builder.renderProfile;
+        this.secretRandom = builder.secretRandom;
+        this.decorationRandom = builder.decorationRandom;
         this.sliderBackgroundImagePath = builder.sliderBackgroundImagePath;
         this.builtinBackground = builder.builtinBackground;
         this.sliderTolerance = builder.sliderTolerance;
@@ -84,10 +104,36 @@ public class CaptchaConfig {
     public Font getFont() { return font; }
     public int getInterferenceLineCount() { return interferenceLineCount; }
     public int getNoisePointCount() { return noisePointCount; }
+    public boolean isGlyphSprites() { return glyphSprites; }
+    public boolean isBackgroundTiles() { return backgroundTiles; }
+    public boolean isGifFixedPalette() { return gifFixedPalette; }
+    public boolean isGifStaticBackground() { return gifStaticBackground; }
+    public RenderMode getRenderMode() { return renderMode; }
+    public RenderProfile getRenderProfile() { return renderProfile; }
+    public RandomSource getSecretRandom() { return secretRandom; }
+    public RandomSource getDecorationRandom() { return decorationRandom; }
     public String getSliderBackgroundImagePath() { return sliderBackgroundImagePath; }
     public BuiltinSliderBackground getBuiltinBackground() { return builtinBackground; }
     public int getSliderTolerance() { return sliderTolerance; }
 
+    /**
+     * 编译配置
+     * <p>
+     * 预先解析字符集、运算符、字体度量和布局常量,结果在本配置对象上缓存,
+     * 同一配置对象重复生成验证码时只编译一次。配置对象应在多次生成之间复用。
+     *
+     * @return 不可变的编译结果
+     */
+    public CaptchaProfile compile() {
+        CaptchaProfile compiled = profile;
+        if (compiled == null) {
+            // 并发首次编译时结果相同,保留任意一个即可
+            compiled = new CaptchaProfile(this);
+            profile = compiled;
+        }
+        return compiled;
+    }
+
     /**
      * 创建Builder
      *
@@ -98,12 +144,21 @@ public class CaptchaConfig {
     }
 
     /**
-     * 创建默认配置
+     * 获取默认配置
+     * <p>
+     * 返回共享的不可变实例,编译结果在首次使用后一直复用
      *
      * @return 默认配置实例
      */
     public static CaptchaConfig defaultConfig() {
-        return new Builder().build();
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 默认配置持有类(首次调用 {@link #defaultConfig()} 时创建)
+     */
+    private static class DefaultHolder {
+        static final CaptchaConfig INSTANCE = new Builder().build();
     }
 
     /**
@@ -126,6 +181,14 @@ public class CaptchaConfig {
         private Font font = new Font("Arial", Font.BOLD, 32);
         private int interferenceLineCount = 3;
         private int noisePointCount = 50;
+        private boolean glyphSprites = false; // 默认逐字形矢量描边
+        private boolean backgroundTiles = false; // 默认每次重新绘制背景
+        private boolean gifFixedPalette = false; // 默认每帧 NeuQuant 量化
+        private boolean gifStaticBackground = false; // 默认每帧重新绘制背景
+        private RenderMode renderMode = RenderMode.JAVA2D;
+        private RenderProfile renderProfile = RenderProfile.QUALITY; // 默认完整效果
+        private RandomSource secretRandom = RandomSource.secure();
+        private RandomSource decorationRandom = RandomSource.fast();
         private String sliderBackgroundImagePath = null; // null表示使用默认生成的背景
         private BuiltinSliderBackground builtinBackground = null; // null表示随机选择内置背景
         private int sliderTolerance = 12; // 默认12像素容差，平衡准确性和用户体验
@@ -205,6 +268,89 @@ public class CaptchaConfig {
             return this;
         }
 
+        /**
+         * 是否使用预旋转字形精灵绘制文字
+         * <p>
+         * 开启后每个 (字符, 角度) 只光栅化一次,之后直接混合像素,角度精度为1度
+         */
+        public Builder glyphSprites(boolean glyphSprites) {
+            this.glyphSprites = glyphSprites;
+            return this;
+        }
+
+        /**
+         * 是否使用预渲染背景图块
+         * <p>
+         * 开启后背景、装饰性圆圈和干扰线从随机生成的图块池中复制,图块会定期重新绘制
+         */
+        public Builder backgroundTiles(boolean backgroundTiles) {
+            this.backgroundTiles = backgroundTiles;
+            return this;
+        }
+
+        /**
+         * GIF动画验证码是否使用固定调色板
+         * <p>
+         * 开启后调色板由背景色和文字颜色在编译配置时确定,各帧不再进行 NeuQuant 神经网络量化,
+         * 像素通过预先计算的 RGB555 反查表直接映射
+         */
+        public Builder gifFixedPalette(boolean gifFixedPalette) {
+            this.gifFixedPalette = gifFixedPalette;
+            return this;
+        }
+
+        /**
+         * GIF动画验证码是否使用静态背景
+         * <p>
+         * 开启后背景、装饰圆圈、干扰线和噪点只绘制一次,各帧不再变化;
+         * 第一帧之后只编码字符所在的变化区域(差分帧),绘制和编码开销都大幅降低
+         */
+        public Builder gifStaticBackground(boolean gifStaticBackground) {
+            this.gifStaticBackground = gifStaticBackground;
+            return this;
+        }
+
+        /**
+         * 设置噪点、干扰线和镂空文字的绘制模式
+         * <p>
+         * DIRECT_RASTER 模式直接写入像素数组,绕过 Java2D 流水线;镂空文字由扫描线光栅化器填充描边轮廓。
+         * 开启字形精灵时文字改由预旋转精灵绘制,不受此项影响
+         */
+        public Builder renderMode(RenderMode renderMode) {
+            this.renderMode = renderMode != null ? renderMode : RenderMode.JAVA2D;
+            return this;
+        }
+
+        /**
+         * 设置渲染质量档位
+         * <p>
+         * 控制抗锯齿等渲染提示、镂空文字描边次数和装饰圆圈数量,FAST 档位以部分视觉效果换取吞吐量
+         */
+        public Builder renderProfile(RenderProfile renderProfile) {
+            this.renderProfile = renderProfile != null ? renderProfile : RenderProfile.QUALITY;
+            return this;
+        }
+
+        /**
+         * 设置秘密随机数来源(答案文本、算术操作数、拼图X坐标)
+         * <p>
+         * 默认基于 SecureRandom,除测试外不应替换为可预测的来源
+         */
+        public Builder secretRandom(RandomSource secretRandom) {
+            this.secretRandom = secretRandom != null ? secretRandom : RandomSource.secure();
+            return this;
+        }
+
+        /**
+         * 设置装饰随机数来源(噪点、干扰线、颜色、抖动等)
+         * <p>
+         * 默认使用每线程独立的快速随机数,避免多线程争用同一个 SecureRandom
+         */
+        public Builder decorationRandom(RandomSource decorationRandom) {
+            this.decorationRandom = decorationRandom != null ? decorationRandom : RandomSource.fast();
+            return this;
+        }
+
         public Builder sliderBackgroundImagePath(String sliderBackgroundImagePath) {
             this.sliderBackgroundImagePath = sliderBackgroundImagePath;
             return this;
@@ -0,0 +1,233 @@
+package io.github.purecaptcha.config;
+
+import io.github.purecaptcha.util.CaptchaPalette;
+import io.github.purecaptcha.util.ImageUtil;
+import io.github.purecaptcha.util.RandomSource;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * 编译后的验证码配置
+ * <p>
+ * 由 {@link CaptchaConfig#compile()} 创建,预先解析字符集、运算符、绘制字体及其度量信息和布局常量,
+ * 生成器每次生成时直接读取,不再拼接过滤字符集、创建字体或匹配字符串配置项。
+ * <p>
+ * 不可变,线程安全。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public final class CaptchaProfile {
+
+    // 字符集常量
+    private static final String NUMBERS = "0123456789";
+    private static final String UPPERCASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String LOWERCASE = "abcdefghijklmnopqrstuvwxyz";
+
+    // 易混淆字符
+    private static final String CONFUSING_CHARS = "0O1lI2Z5S8B";
+
+    // 运算符
+    private static final char[] ADD_SUBTRACT_OPERATORS = {'+', '-'};
+    private static final char[] ALL_OPERATORS = {'+', '-', '×', '÷'};
+
+    // 高质量档位下的装饰圆圈数量
+    private static final int DECORATIVE_CIRCLES = 8;
+
+    private final char[] charset;
+    private final char[] operators;
+
+    private final Font textFont;
+    private final FontMetrics textMetrics;
+    private final int textBaseY;
+
+    private final Font chineseFont;
+    private final FontMetrics chineseMetrics;
+    private final int chineseBaseY;
+
+    private final int decorativeCircleCount;
+    private final int noisePointCount;
+    private final int hollowPasses;
+
+    private final CaptchaPalette gifPalette;
+
+    CaptchaProfile(CaptchaConfig config) {
+        this.charset = resolveCharset(config.getCharType(), config.isExcludeConfusingChars());
+        this.operators = "ALL".equals(config.getOperatorType()) ? ALL_OPERATORS : ADD_SUBTRACT_OPERATORS;
+
+        int fontSize = config.getFont().getSize();
+        this.textFont = new Font("Arial", Font.BOLD, Math.max(24, fontSize - 4));
+        this.chineseFont = new Font("Microsoft YaHei UI", Font.BOLD, Math.max(28, fontSize - 2));
+
+        // 使用与绘制时相同的渲染提示获取度量信息
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = ImageUtil.getGraphics(scratch, config.getRenderProfile());
+        this.textMetrics = g2d.getFontMetrics(textFont);
+        this.chineseMetrics = g2d.getFontMetrics(chineseFont);
+        g2d.dispose();
+
+        this.textBaseY = (config.getHeight() + textMetrics.getAscent()) / 2;
+        this.chineseBaseY = (config.getHeight() + chineseMetrics.getAscent()) / 2;
+
+        this.decorativeCircleCount = config.getRenderProfile().scaleDecoration(DECORATIVE_CIRCLES);
+        this.noisePointCount = config.getNoisePointCount() / 3;
+        this.hollowPasses = config.getRenderProfile().getHollowPasses();
+
+        this.gifPalette = config.isGifFixedPalette()
+                ? CaptchaPalette.fixed(config.getBackgroundColor(), config.getFontColor())
+                : null;
+    }
+
+    /**
+     * 从字符集中随机选择一个字符
+     *
+     * @param random 随机数来源
+     * @return 随机字符
+     */
+    public char nextChar(RandomSource random) {
+        return charset[random.nextInt(charset.length)];
+    }
+
+    /**
+     * 获取字符集大小
+     *
+     * @return 字符数量
+     */
+    public int getCharsetSize() {
+        return charset.length;
+    }
+
+    /**
+     * 随机选择一个运算符
+     *
+     * @param random 随机数来源
+     * @return 运算符
+     */
+    public char nextOperator(RandomSource random) {
+        return operators[random.nextInt(operators.length)];
+    }
+
+    /**
+     * 获取字符和算术验证码的镂空文字字体
+     *
+     * @return 字体
+     */
+    public Font getTextFont() {
+        return textFont;
+    }
+
+    /**
+     * 获取镂空文字字体的度量信息
+     *
+     * @return 字体度量
+     */
+    public FontMetrics getTextMetrics() {
+        return textMetrics;
+    }
+
+    /**
+     * 获取镂空文字垂直居中的基线位置
+     *
+     * @return 基线Y坐标
+     */
+    public int getTextBaseY() {
+        return textBaseY;
+    }
+
+    /**
+     * 获取中文验证码的镂空文字字体
+     *
+     * @return 字体
+     */
+    public Font getChineseFont() {
+        return chineseFont;
+    }
+
+    /**
+     * 获取中文字体的度量信息
+     *
+     * @return 字体度量
+     */
+    public FontMetrics getChineseMetrics() {
+        return chineseMetrics;
+    }
+
+    /**
+     * 获取中文文字垂直居中的基线位置
+     *
+     * @return 基线Y坐标
+     */
+    public int getChineseBaseY() {
+        return chineseBaseY;
+    }
+
+    /**
+     * 获取按渲染档位缩放后的装饰圆圈数量
+     *
+     * @return 圆圈数量
+     */
+    public int getDecorativeCircleCount() {
+        return decorativeCircleCount;
+    }
+
+    /**
+     * 获取文字绘制后的噪点数量(配置值的三分之一,保持清爽)
+     *
+     * @return 噪点数量
+     */
+    public int getNoisePointCount() {
+        return noisePointCount;
+    }
+
+    /**
+     * 获取镂空文字的描边次数
+     *
+     * @return 描边次数
+     */
+    public int getHollowPasses() {
+        return hollowPasses;
+    }
+
+    /**
+     * 获取GIF动画验证码的固定调色板
+     *
+     * @return 固定调色板,未开启 gifFixedPalette 时返回null
+     */
+    public CaptchaPalette getGifPalette() {
+        return gifPalette;
+    }
+
+    /**
+     * 解析字符集
+     *
+     * @param charType 字符类型
+     * @param excludeConfusingChars 是否排除易混淆字符
+     * @return 字符集
+     */
+    private static char[] resolveCharset(String charType, boolean excludeConfusingChars) {
+        String charset;
+        if ("NUMERIC".equals(charType)) {
+            charset = NUMBERS;
+        } else if ("UPPERCASE".equals(charType)) {
+            charset = UPPERCASE;
+        } else if ("LOWERCASE".equals(charType)) {
+            charset = LOWERCASE;
+        } else {
+            charset = NUMBERS + UPPERCASE + LOWERCASE;
+        }
+
+        if (!excludeConfusingChars) {
+            return charset.toCharArray();
+        }
+        StringBuilder filtered = new StringBuilder();
+        for (char c : charset.toCharArray()) {
+            if (CONFUSING_CHARS.indexOf(c) == -1) {
+                filtered.append(c);
+            }
+        }
+        return filtered.toString().toCharArray();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.purecaptcha.config;
+
+/**
+ * 绘制模式枚举
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public enum RenderMode {
+
+    /**
+     * 所有图元通过 Java2D (Graphics2D) 绘制
+     */
+    JAVA2D("Java2D绘制"),
+
+    /**
+     * 噪点、干扰线和镂空文字直接写入像素数组,绕过 Java2D 流水线
+     */
+    DIRECT_RASTER("直接像素绘制");
+
+    private final String description;
+
+    RenderMode(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 获取绘制模式描述
+     *
+     * @return 模式描述
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -1,11 +1,17 @@
 package io.github.purecaptcha.core;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * 验证码结果接口
  * <p>
- * 封装验证码图像和答案,支持静态图片和动态GIF
+ * 封装验证码图像和答案,支持静态图片和动态GIF。
+ * 通过 {@link #writeTo(OutputStream, ImageFormat)} 可将编码结果直接写入 Servlet 响应流或 NIO 通道,
+ * 内置实现对每种格式只编码一次。
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -61,4 +67,51 @@ public interface Captcha {
      * @return 高度(像素)
      */
     int getHeight();
+
+    /**
+     * 获取指定格式的编码数据
+     * <p>
+     * 默认实现每次调用都重新编码,{@link io.github.purecaptcha.model.CaptchaResult} 和
+     * {@link io.github.purecaptcha.model.SliderCaptchaResult} 会缓存每种格式的编码结果。
+     * 返回的数组可能被缓存共享,调用方不应修改。
+     *
+     * @param format 输出格式
+     * @return 编码数据
+     * @throws IllegalArgumentException GIF动画验证码请求非GIF格式
+     */
+    default byte[] getEncoded(ImageFormat format) {
+        BufferedImage image = getImage();
+        if (image == null) {
+            if (format != ImageFormat.GIF) {
+                throw new IllegalArgumentException("GIF动画验证码只支持GIF格式");
+            }
+            return getImageData();
+        }
+        return format.encode(image);
+    }
+
+    /**
+     * 将指定格式的编码数据写入输出流
+     *
+     * @param out 输出流(不会被关闭)
+     * @param format 输出格式
+     * @throws IOException 写入失败
+     */
+    default void writeTo(OutputStream out, ImageFormat format) throws IOException {
+        out.write(getEncoded(format));
+    }
+
+    /**
+     * 将指定格式的编码数据写入NIO通道
+     *
+     * @param channel 通道(不会被关闭)
+     * @param format 输出格式
+     * @throws IOException 写入失败
+     */
+    default void writeTo(WritableByteChannel channel, ImageFormat format) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(getEncoded(format));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
 }
@@ -2,10 +2,17 @@ package io.github.purecaptcha.core;
 
 import io.github.purecaptcha.config.CaptchaConfig;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * 验证码生成器接口
  * <p>
  * 所有验证码生成器的顶层接口,定义统一的生成方法
+ * <p>
+ * {@link io.github.purecaptcha.CaptchaFactory} 为每种类型只保存一个生成器实例并在所有线程间共享,
+ * 实现类必须线程安全,最好不持有可变状态。自定义实现可以通过
+ * {@code META-INF/services/io.github.purecaptcha.core.CaptchaGenerator} 注册,并需要提供无参构造方法。
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -20,6 +27,42 @@ public interface CaptchaGenerator {
      */
     Captcha generate(CaptchaConfig config);
 
+    /**
+     * 在调用方提供的绘制目标上生成验证码
+     * <p>
+     * 返回的验证码图像引用绘制目标中的画布,只在下一次使用同一目标生成之前有效,
+     * 适合生成后立即编码输出的场景。默认实现等同于 {@link #generate(CaptchaConfig)}。
+     *
+     * @param config 验证码配置
+     * @param target 绘制目标
+     * @return 验证码对象
+     */
+    default Captcha generateInto(CaptchaConfig config, RenderTarget target) {
+        return generate(config);
+    }
+
+    /**
+     * 在共享绘制线程池上异步生成验证码
+     *
+     * @param config 验证码配置
+     * @return 异步结果
+     * @see RenderExecutor
+     */
+    default CompletableFuture<Captcha> generateAsync(CaptchaConfig config) {
+        return generateAsync(config, RenderExecutor.shared());
+    }
+
+    /**
+     * 在指定线程池上异步生成验证码
+     *
+     * @param config 验证码配置
+     * @param executor 绘制线程池
+     * @return 异步结果
+     */
+    default CompletableFuture<Captcha> generateAsync(CaptchaConfig config, Executor executor) {
+        return RenderExecutor.submit(() -> generate(config), executor);
+    }
+
     /**
      * 使用默认配置生成验证码
      *
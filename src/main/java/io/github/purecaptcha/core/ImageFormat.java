@@ -0,0 +1,100 @@
+package io.github.purecaptcha.core;
+
+import io.github.purecaptcha.util.AnimatedGifEncoder;
+import io.github.purecaptcha.util.ImageEncoderPool;
+import io.github.purecaptcha.util.PngEncoder;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 验证码图像输出格式枚举
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ * @see Captcha#getEncoded(ImageFormat)
+ */
+public enum ImageFormat {
+
+    /**
+     * PNG 真彩色(滑动拼图等照片类图像)
+     */
+    PNG("PNG真彩色", "image/png", "png"),
+
+    /**
+     * PNG-8 索引色(字符、算术、中文验证码,体积约为真彩色的一半)
+     */
+    PNG_INDEXED("PNG-8索引色", "image/png", "png"),
+
+    /**
+     * GIF(GIF动画验证码的原始数据,静态图像编码为单帧GIF)
+     */
+    GIF("GIF", "image/gif", "gif"),
+
+    /**
+     * JPEG(滑动拼图背景图,不支持透明通道)
+     */
+    JPEG("JPEG", "image/jpeg", "jpg");
+
+    private final String description;
+    private final String mimeType;
+    private final String extension;
+
+    ImageFormat(String description, String mimeType, String extension) {
+        this.description = description;
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    /**
+     * 获取格式描述
+     *
+     * @return 格式描述
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 获取MIME类型(用于 Content-Type 响应头和 data URI)
+     *
+     * @return MIME类型
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * 获取文件扩展名
+     *
+     * @return 扩展名(不含点)
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * 将静态图像编码为本格式
+     *
+     * @param image 图像
+     * @return 编码后的数据
+     * @throws IllegalArgumentException 以JPEG编码含透明通道的图像
+     */
+    public byte[] encode(BufferedImage image) {
+        switch (this) {
+            case PNG:
+                return PngEncoder.encode(image);
+            case PNG_INDEXED:
+                return PngEncoder.encodeIndexed(image);
+            case JPEG:
+                return ImageEncoderPool.encodeJpeg(image);
+            default:
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+                encoder.start(out);
+                encoder.addFrame(image);
+                encoder.finish();
+                return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.purecaptcha.core;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 验证码绘制线程池
+ * <p>
+ * 异步生成验证码时使用的共享线程池,线程数默认等于CPU核数,
+ * 使 Servlet 线程或虚拟线程上的大量请求不会同时进入 Java2D 光栅化而超额占用CPU。
+ * <p>
+ * 可通过系统属性调整(需在首次使用前设置,非法值会打印警告并使用默认值):
+ * <ul>
+ *   <li>{@code purecaptcha.render.threads}:绘制线程数,默认CPU核数</li>
+ *   <li>{@code purecaptcha.render.queue}:等待队列长度,默认1024,队列满时异步结果以
+ *       {@link RejectedExecutionException} 失败,调用方可以据此降级</li>
+ * </ul>
+ * 线程为守护线程,不会阻止JVM退出。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class RenderExecutor {
+
+    // 系统属性名
+    public static final String THREADS_PROPERTY = "purecaptcha.render.threads";
+    public static final String QUEUE_PROPERTY = "purecaptcha.render.queue";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private RenderExecutor() {
+    }
+
+    /**
+     * 获取共享的绘制线程池(首次调用时创建)
+     *
+     * @return 绘制线程池(不可关闭)
+     */
+    public static Executor shared() {
+        return Holder.EXECUTOR;
+    }
+
+    /**
+     * 在指定线程池上异步执行生成任务
+     * <p>
+     * 线程池拒绝任务时返回以 {@link RejectedExecutionException} 失败的结果,而不是直接抛出
+     *
+     * @param task 生成任务
+     * @param executor 线程池
+     * @return 异步结果
+     */
+    public static CompletableFuture<Captcha> submit(Supplier<Captcha> task, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<Captcha> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    /**
+     * 读取正整数系统属性
+     * <p>
+     * 在类初始化阶段调用,非法值不能抛出异常(否则线程池永久不可用),只打印警告并使用默认值
+     */
+    private static int positiveProperty(String name, int defaultValue) {
+        String text = System.getProperty(name);
+        if (text == null) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.parseInt(text.trim());
+            if (value >= 1) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // 按非法值处理
+        }
+        System.out.println("警告：系统属性" + name + "必须为正整数，当前值\"" + text + "\"无效，使用默认值" + defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * 延迟创建共享线程池
+     */
+    private static class Holder {
+        static final Executor EXECUTOR = create();
+
+        private static ThreadPoolExecutor create() {
+            int threads = positiveProperty(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+            int queue = positiveProperty(QUEUE_PROPERTY, DEFAULT_QUEUE_CAPACITY);
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(queue), new RenderThreadFactory(),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * 守护线程工厂
+     */
+    private static class RenderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "purecaptcha-render-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
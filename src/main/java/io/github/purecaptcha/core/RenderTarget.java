@@ -0,0 +1,89 @@
+package io.github.purecaptcha.core;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * 可复用的绘制目标
+ * <p>
+ * 保存一组按尺寸复用的画布,配合 {@link CaptchaGenerator#generateInto} 使用,
+ * 同一线程连续生成验证码时不再为每个验证码分配新的图像(字符验证码约40KB,滑动验证码约280KB)。
+ * <p>
+ * 通过 {@link #generateInto} 得到的验证码图像直接引用本对象的画布,
+ * 只在下一次使用同一目标生成之前有效,调用方应在此之前完成编码输出。
+ * 需要长期保存的验证码(例如放入 {@link io.github.purecaptcha.CaptchaPool})请使用普通的 generate 方法。
+ * <p>
+ * 非线程安全,每个线程使用自己的实例,或直接使用 {@link #forCurrentThread()}。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class RenderTarget {
+
+    private static final ThreadLocal<RenderTarget> CURRENT = new ThreadLocal<RenderTarget>() {
+        @Override
+        protected RenderTarget initialValue() {
+            return new RenderTarget();
+        }
+    };
+
+    private BufferedImage canvas;
+    private BufferedImage secondary;
+    private BufferedImage piece;
+
+    /**
+     * 获取当前线程的绘制目标
+     *
+     * @return 当前线程独享的绘制目标
+     */
+    public static RenderTarget forCurrentThread() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 获取主画布(TYPE_INT_RGB),尺寸变化时重新分配
+     * <p>
+     * 内容为上一次绘制的结果,调用方需要自行覆盖背景
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @return 主画布
+     */
+    public BufferedImage canvas(int width, int height) {
+        canvas = reuse(canvas, width, height, BufferedImage.TYPE_INT_RGB);
+        return canvas;
+    }
+
+    /**
+     * 获取辅助画布(TYPE_INT_RGB),用于滑动验证码的原图副本等
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @return 辅助画布
+     */
+    public BufferedImage secondary(int width, int height) {
+        secondary = reuse(secondary, width, height, BufferedImage.TYPE_INT_RGB);
+        return secondary;
+    }
+
+    /**
+     * 获取透明画布(TYPE_INT_ARGB),用于滑动验证码的拼图块,返回前已清空为全透明
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @return 透明画布
+     */
+    public BufferedImage piece(int width, int height) {
+        piece = reuse(piece, width, height, BufferedImage.TYPE_INT_ARGB);
+        Arrays.fill(((DataBufferInt) piece.getRaster().getDataBuffer()).getData(), 0);
+        return piece;
+    }
+
+    private static BufferedImage reuse(BufferedImage image, int width, int height, int type) {
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            return new BufferedImage(width, height, type);
+        }
+        return image;
+    }
+}
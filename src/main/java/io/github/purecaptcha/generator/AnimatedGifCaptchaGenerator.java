@@ -1,39 +1,92 @@
 package io.github.purecaptcha.generator;
 
 import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.CaptchaProfile;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.RenderTarget;
 import io.github.purecaptcha.model.CaptchaResult;
 import io.github.purecaptcha.util.AnimatedGifEncoder;
 import io.github.purecaptcha.util.ColorUtil;
 import io.github.purecaptcha.util.ImageUtil;
-import io.github.purecaptcha.util.RandomUtil;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * GIF 动画验证码生成器
  * <p>
  * 支持多帧动画效果,字符随机抖动
+ * <p>
+ * 无状态,线程安全
  *
  * @author PureCaptcha
  * @version 1.0.0
  */
 public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
 
-    private static final String NUMBERS = "0123456789";
-    private static final String UPPERCASE = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final String LOWERCASE = "abcdefghijklmnopqrstuvwxyz";
+    // GIF验证码固定使用数字和大小写字母
+    private static final String CHARSET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    // 字符间距(像素)
+    private static final int CHAR_SPACING = 15;
 
     @Override
     public Captcha generate(CaptchaConfig config) {
+        int width = config.getWidth();
+        int height = config.getHeight();
+        return generate(config, ImageUtil.createImage(width, height),
+                config.isGifStaticBackground() ? ImageUtil.createImage(width, height) : null);
+    }
+
+    @Override
+    public Captcha generateInto(CaptchaConfig config, RenderTarget target) {
+        int width = config.getWidth();
+        int height = config.getHeight();
+        return generate(config, target.canvas(width, height),
+                config.isGifStaticBackground() ? target.secondary(width, height) : null);
+    }
+
+    /**
+     * 生成GIF动画验证码并直接写入输出流
+     * <p>
+     * 每编码完一帧即刷新输出流,适合直接写入 HTTP 响应(Content-Type: image/gif),
+     * 首帧无需等待整个动画编码完成,也不在内存中保留完整的GIF数据。
+     * 帧画布使用当前线程的 {@link RenderTarget}。
+     *
+     * @param config 配置
+     * @param out 输出流(不会被关闭)
+     * @return 验证码答案(小写,校验时不区分大小写)
+     * @throws IOException 写入失败
+     */
+    public String generateTo(CaptchaConfig config, OutputStream out) throws IOException {
+        RenderTarget target = RenderTarget.forCurrentThread();
+        int width = config.getWidth();
+        int height = config.getHeight();
+        String captchaText = generateCaptchaText(config);
+        writeAnimatedGif(captchaText, config, config.compile(), target.canvas(width, height),
+                config.isGifStaticBackground() ? target.secondary(width, height) : null, out);
+        return captchaText.toLowerCase();
+    }
+
+    /**
+     * 使用指定的帧画布生成验证码(各帧依次绘制到同一画布并立即编码)
+     *
+     * @param config 配置
+     * @param canvas 帧画布(TYPE_INT_RGB,尺寸与配置一致)
+     * @param background 静态背景层画布,未开启 gifStaticBackground 时为null
+     * @return 验证码对象
+     */
+    private Captcha generate(CaptchaConfig config, BufferedImage canvas, BufferedImage background) {
         try {
             String captchaText = generateCaptchaText(config);
-            byte[] gifData = generateAnimatedGif(captchaText, config);
+            byte[] gifData = generateAnimatedGif(captchaText, config, config.compile(), canvas, background);
 
             String answer = captchaText.toLowerCase();
 
@@ -62,10 +115,9 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
     }
 
     private String generateCaptchaText(CaptchaConfig config) {
-        String charset = NUMBERS + UPPERCASE + LOWERCASE;
-        StringBuilder text = new StringBuilder();
+        StringBuilder text = new StringBuilder(config.getCharLength());
         for (int i = 0; i < config.getCharLength(); i++) {
-            text.append(RandomUtil.randomChar(charset));
+            text.append(config.getSecretRandom().nextChar(CHARSET));
         }
         return text.toString();
     }
@@ -74,52 +126,102 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
      * 生成动画 GIF
      * 包含 5 帧动画,每帧字符位置和旋转角度略有变化
      */
-    private byte[] generateAnimatedGif(String text, CaptchaConfig config) throws IOException {
-        int width = config.getWidth();
-        int height = config.getHeight();
+    private byte[] generateAnimatedGif(String text, CaptchaConfig config, CaptchaProfile profile,
+                                       BufferedImage canvas, BufferedImage background) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeAnimatedGif(text, config, profile, canvas, background, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * 逐帧编码动画 GIF 并写入输出流(每帧写完后刷新)
+     */
+    private void writeAnimatedGif(String text, CaptchaConfig config, CaptchaProfile profile,
+                                  BufferedImage canvas, BufferedImage background, OutputStream out)
+            throws IOException {
         int frameCount = 5; // 5 帧动画
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
         AnimatedGifEncoder encoder = new AnimatedGifEncoder();
 
-        encoder.start(baos);
+        if (!encoder.start(out)) {
+            throw writeFailure(encoder, "写入GIF文件头失败");
+        }
         encoder.setRepeat(0); // 无限循环
         encoder.setDelay(200); // 每帧延迟 200ms
+        encoder.setPalette(profile.getGifPalette()); // 未开启固定调色板时为null,每帧量化
 
-        // 生成多帧
+        if (background != null) {
+            // 背景只绘制一次,之后每帧只有字符区域变化,编码为差分帧(局部颜色表只含变化区域的颜色)
+            drawStaticBackground(background, config, profile);
+            encoder.setDeltaFrames(true);
+            encoder.setLocalPalettes(true);
+        }
+
+        // 生成多帧(编码器在 addFrame 时即读取像素,画布可在帧之间复用)
         for (int frame = 0; frame < frameCount; frame++) {
-            BufferedImage image = generateFrame(text, config, frame);
-            encoder.addFrame(image);
+            BufferedImage image = background != null
+                    ? generateFrameOnBackground(canvas, background, text, config, profile, frame)
+                    : generateFrame(canvas, text, config, profile, frame);
+            if (!encoder.addFrame(image)) {
+                throw writeFailure(encoder, "写入GIF帧失败");
+            }
         }
 
-        encoder.finish();
-        return baos.toByteArray();
+        if (!encoder.finish()) {
+            throw writeFailure(encoder, "写入GIF结束标记失败");
+        }
+    }
+
+    /**
+     * 编码器写入失败时返回原始异常(例如客户端断开),没有原始异常时才新建
+     */
+    private static IOException writeFailure(AnimatedGifEncoder encoder, String message) {
+        IOException cause = encoder.getLastError();
+        return cause != null ? cause : new IOException(message);
+    }
+
+    /**
+     * 绘制静态背景层(背景、装饰圆圈、干扰线和噪点)
+     * 噪点绘制在字符下方,各帧共用
+     */
+    private void drawStaticBackground(BufferedImage image, CaptchaConfig config, CaptchaProfile profile) {
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
+        ImageUtil.drawCaptchaBackground(image, g2d, config, profile);
+        ImageUtil.drawCaptchaNoise(image, g2d, config, profile);
+        g2d.dispose();
+    }
+
+    /**
+     * 在静态背景层上生成单帧图像(只绘制字符)
+     */
+    private BufferedImage generateFrameOnBackground(BufferedImage image, BufferedImage background, String text,
+                                                    CaptchaConfig config, CaptchaProfile profile, int frameIndex) {
+        int[] layer = ((DataBufferInt) background.getRaster().getDataBuffer()).getData();
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        System.arraycopy(layer, 0, pixels, 0, layer.length);
+
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
+        drawStyledCharactersAnimated(g2d, image, text, config, profile, frameIndex);
+        g2d.dispose();
+        return image;
     }
 
     /**
      * 生成单帧图像
      * 每帧字符会有轻微的位置和角度变化
      */
-    private BufferedImage generateFrame(String text, CaptchaConfig config, int frameIndex) {
-        int width = config.getWidth();
-        int height = config.getHeight();
+    private BufferedImage generateFrame(BufferedImage image, String text, CaptchaConfig config,
+                                        CaptchaProfile profile, int frameIndex) {
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
 
-        BufferedImage image = ImageUtil.createImage(width, height);
-        Graphics2D g2d = ImageUtil.getGraphics(image);
+        // 绘制背景、装饰性圆圈和干扰线(每帧略有变化)
+        ImageUtil.drawCaptchaBackground(image, g2d, config, profile);
 
-        ImageUtil.drawBackground(g2d, width, height, config.getBackgroundColor());
-        
-        // 绘制装饰性圆圈（每帧略有变化）
-        ImageUtil.drawDecorativeCircles(g2d, width, height, 8);
-        
-        // 绘制现代化干扰线
-        ImageUtil.drawModernInterferenceLines(g2d, width, height, config.getInterferenceLineCount());
-        
         // 绘制风格化动画字符
-        drawStyledCharactersAnimated(g2d, text, config, frameIndex);
-        
+        drawStyledCharactersAnimated(g2d, image, text, config, profile, frameIndex);
+
         // 绘制少量噪点
-        ImageUtil.drawNoisePoints(g2d, width, height, config.getNoisePointCount() / 3);
+        ImageUtil.drawCaptchaNoise(image, g2d, config, profile);
 
         g2d.dispose();
         return image;
@@ -139,7 +241,9 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
 
         for (int i = 0; i < charCount; i++) {
             char c = text.charAt(i);
-            Color color = config.getFontColor() != null ? config.getFontColor() : ColorUtil.randomDarkColor();
+            Color color = config.getFontColor() != null
+                    ? config.getFontColor()
+                    : ColorUtil.randomDarkColor(config.getDecorationRandom());
             g2d.setColor(color);
 
             // 基础位置
@@ -154,7 +258,7 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
             int y = baseY + offsetY;
 
             // 随机旋转角度(每帧略有变化)
-            double baseAngle = RandomUtil.randomInt(-25, 25);
+            double baseAngle = config.getDecorationRandom().nextInt(-25, 25);
             double angleOffset = Math.sin(frameIndex * 0.5 + i) * 5;
             double angle = Math.toRadians(baseAngle + angleOffset);
 
@@ -166,22 +270,20 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
      * 绘制镂空风格的带动画效果的字符
      * 每帧字符位置、角度和颜色略有不同
      */
-    private void drawStyledCharactersAnimated(Graphics2D g2d, String text, CaptchaConfig config, int frameIndex) {
+    private void drawStyledCharactersAnimated(Graphics2D g2d, BufferedImage image, String text,
+                                              CaptchaConfig config, CaptchaProfile profile, int frameIndex) {
         int width = config.getWidth();
-        int height = config.getHeight();
         int charCount = text.length();
 
         // 使用清晰的字体，字号稍微减小
-        Font styledFont = new Font("Arial", Font.BOLD, 
-                                   Math.max(24, config.getFont().getSize() - 4));
+        Font styledFont = profile.getTextFont();
         g2d.setFont(styledFont);
 
         // 获取字体度量信息
-        FontMetrics fm = g2d.getFontMetrics(styledFont);
-        int ascent = fm.getAscent();
+        FontMetrics fm = profile.getTextMetrics();
         
         // 计算字符间距
-        int charSpacing = 15;
+        int charSpacing = CHAR_SPACING;
         int totalCharsWidth = 0;
         for (int i = 0; i < charCount; i++) {
             totalCharsWidth += fm.charWidth(text.charAt(i));
@@ -192,7 +294,7 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
         int startX = (width - totalCharsWidth) / 2;
         
         // Y轴居中位置
-        int baseY = (height + ascent) / 2;
+        int baseY = profile.getTextBaseY();
 
         int currentX = startX;
         for (int i = 0; i < charCount; i++) {
@@ -202,7 +304,7 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
             // 每个字符使用鲜艳的随机颜色
             Color charColor = config.getFontColor() != null
                     ? config.getFontColor()
-                    : ColorUtil.randomVibrantColor();
+                    : ColorUtil.randomVibrantColor(config.getDecorationRandom());
 
             // 添加平滑的动画抖动(每帧不同)
             int offsetX = (int)(Math.sin(frameIndex * 0.5 + i * 0.4) * 2);
@@ -217,7 +319,8 @@ public class AnimatedGifCaptchaGenerator implements CaptchaGenerator {
             double angle = Math.toRadians(baseAngle + angleOffset);
 
             // 绘制镂空字符
-            ImageUtil.drawHollowText(g2d, String.valueOf(c), x, y, angle, charColor);
+            ImageUtil.drawCaptchaHollowText(image, g2d, styledFont, String.valueOf(c), x, y, angle, charColor,
+                    config, profile);
             
             // 移动到下一个字符位置
             currentX += charWidth + charSpacing;
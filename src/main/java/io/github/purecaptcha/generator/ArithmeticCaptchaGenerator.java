@@ -1,13 +1,15 @@
 package io.github.purecaptcha.generator;
 
 import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.CaptchaProfile;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.RenderTarget;
 import io.github.purecaptcha.model.CaptchaResult;
 import io.github.purecaptcha.util.ColorUtil;
 import io.github.purecaptcha.util.ImageUtil;
-import io.github.purecaptcha.util.RandomUtil;
+import io.github.purecaptcha.util.RandomSource;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -16,42 +18,50 @@ import java.awt.image.BufferedImage;
  * 算术验证码生成器
  * <p>
  * 生成简单的四则运算表达式,确保结果为正整数
+ * <p>
+ * 无状态,线程安全
  *
  * @author PureCaptcha
  * @version 1.0.0
  */
 public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
 
-    // 运算符
-    private static final char[] ADD_SUBTRACT_OPERATORS = {'+', '-'};
-    private static final char[] ALL_OPERATORS = {'+', '-', '×', '÷'};
+    // token之间的间距(像素)
+    private static final int TOKEN_SPACING = 12;
 
     @Override
     public Captcha generate(CaptchaConfig config) {
-        // 生成算术表达式和答案
-        ArithmeticExpression expression = generateExpression(config);
+        return generate(config, ImageUtil.createImage(config.getWidth(), config.getHeight()));
+    }
+
+    @Override
+    public Captcha generateInto(CaptchaConfig config, RenderTarget target) {
+        return generate(config, target.canvas(config.getWidth(), config.getHeight()));
+    }
 
-        // 创建图像
-        BufferedImage image = ImageUtil.createImage(config.getWidth(), config.getHeight());
-        Graphics2D g2d = ImageUtil.getGraphics(image);
+    /**
+     * 在指定画布上生成验证码
+     *
+     * @param config 配置
+     * @param image 画布(TYPE_INT_RGB,尺寸与配置一致,原有内容会被背景覆盖)
+     * @return 验证码对象
+     */
+    private Captcha generate(CaptchaConfig config, BufferedImage image) {
+        CaptchaProfile profile = config.compile();
 
-        // 绘制背景
-        ImageUtil.drawBackground(g2d, config.getWidth(), config.getHeight(),
-                                config.getBackgroundColor());
+        // 生成算术表达式和答案
+        ArithmeticExpression expression = generateExpression(config, profile);
 
-        // 绘制装饰性圆圈
-        ImageUtil.drawDecorativeCircles(g2d, config.getWidth(), config.getHeight(), 8);
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
 
-        // 绘制现代化干扰线
-        ImageUtil.drawModernInterferenceLines(g2d, config.getWidth(), config.getHeight(),
-                                             config.getInterferenceLineCount());
+        // 绘制背景、装饰性圆圈和干扰线
+        ImageUtil.drawCaptchaBackground(image, g2d, config, profile);
 
         // 绘制风格化表达式
-        drawStyledExpression(g2d, expression.text, config);
+        drawStyledExpression(g2d, image, expression.text, config, profile);
 
         // 绘制少量噪点
-        ImageUtil.drawNoisePoints(g2d, config.getWidth(), config.getHeight(),
-                                 config.getNoisePointCount() / 3);
+        ImageUtil.drawCaptchaNoise(image, g2d, config, profile);
 
         g2d.dispose();
 
@@ -73,22 +83,21 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
      * 生成算术表达式
      *
      * @param config 配置
+     * @param profile 编译后的配置(运算符集合)
      * @return 表达式对象
      */
-    private ArithmeticExpression generateExpression(CaptchaConfig config) {
-        char[] operators = "ALL".equals(config.getOperatorType())
-                ? ALL_OPERATORS
-                : ADD_SUBTRACT_OPERATORS;
+    private ArithmeticExpression generateExpression(CaptchaConfig config, CaptchaProfile profile) {
+        RandomSource random = config.getSecretRandom();
 
         // 最多尝试100次生成有效表达式
         for (int i = 0; i < 100; i++) {
-            char operator = operators[RandomUtil.randomInt(operators.length)];
+            char operator = profile.nextOperator(random);
             int a, b, result;
 
             switch (operator) {
                 case '+':
-                    a = RandomUtil.randomInt(1, 20);
-                    b = RandomUtil.randomInt(1, 20);
+                    a = random.nextInt(1, 20);
+                    b = random.nextInt(1, 20);
                     result = a + b;
                     if (result > 0) {
                         return new ArithmeticExpression(a + " + " + b + " = ?", result);
@@ -97,8 +106,8 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
 
                 case '-':
                     // 确保结果为正数
-                    a = RandomUtil.randomInt(2, 20);
-                    b = RandomUtil.randomInt(1, a - 1);
+                    a = random.nextInt(2, 20);
+                    b = random.nextInt(1, a - 1);
                     result = a - b;
                     if (result > 0) {
                         return new ArithmeticExpression(a + " - " + b + " = ?", result);
@@ -106,8 +115,8 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
                     break;
 
                 case '×':
-                    a = RandomUtil.randomInt(1, 10);
-                    b = RandomUtil.randomInt(1, 10);
+                    a = random.nextInt(1, 10);
+                    b = random.nextInt(1, 10);
                     result = a * b;
                     if (result > 0) {
                         return new ArithmeticExpression(a + " × " + b + " = ?", result);
@@ -116,8 +125,8 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
 
                 case '÷':
                     // 确保整除
-                    b = RandomUtil.randomInt(1, 10);
-                    result = RandomUtil.randomInt(1, 10);
+                    b = random.nextInt(1, 10);
+                    result = random.nextInt(1, 10);
                     a = b * result;
                     if (result > 0) {
                         return new ArithmeticExpression(a + " ÷ " + b + " = ?", result);
@@ -156,13 +165,13 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
         // 设置颜色
         Color color = config.getFontColor() != null
                 ? config.getFontColor()
-                : ColorUtil.randomDarkColor();
+                : ColorUtil.randomDarkColor(config.getDecorationRandom());
         g2d.setColor(color);
 
         // 添加轻微的随机偏移和旋转
-        x += RandomUtil.randomInt(-10, 10);
-        y += RandomUtil.randomInt(-5, 5);
-        double angle = Math.toRadians(RandomUtil.randomInt(-5, 5));
+        x += config.getDecorationRandom().nextInt(-10, 10);
+        y += config.getDecorationRandom().nextInt(-5, 5);
+        double angle = Math.toRadians(config.getDecorationRandom().nextInt(-5, 5));
 
         // 绘制表达式
         ImageUtil.drawRotatedText(g2d, expression, x, y, angle);
@@ -172,27 +181,27 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
      * 绘制风格化表达式（数字作为整体，十位数紧密连接）
      *
      * @param g2d Graphics2D对象
+     * @param image 画布
      * @param expression 表达式文本
      * @param config 配置
+     * @param profile 编译后的配置(字体、度量和基线)
      */
-    private void drawStyledExpression(Graphics2D g2d, String expression, CaptchaConfig config) {
+    private void drawStyledExpression(Graphics2D g2d, BufferedImage image, String expression,
+                                      CaptchaConfig config, CaptchaProfile profile) {
         int width = config.getWidth();
-        int height = config.getHeight();
 
         // 使用清晰的字体，字号稍微减小
-        Font styledFont = new Font("Arial", Font.BOLD, 
-                                   Math.max(24, config.getFont().getSize() - 4));
+        Font styledFont = profile.getTextFont();
         g2d.setFont(styledFont);
 
         // 获取字体度量信息
-        FontMetrics fm = g2d.getFontMetrics(styledFont);
-        int ascent = fm.getAscent();
+        FontMetrics fm = profile.getTextMetrics();
         
         // 将表达式分割为token（数字、运算符、空格等）
         java.util.List<String> tokens = tokenizeExpression(expression);
         
         // 计算总宽度（token间距只在非空格token之间）
-        int tokenSpacing = 12; // token之间的间距
+        int tokenSpacing = TOKEN_SPACING;
         int totalWidth = 0;
         for (String token : tokens) {
             if (!token.equals(" ")) {
@@ -214,7 +223,7 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
         int startX = (width - totalWidth) / 2;
         
         // 垂直居中位置
-        int baseY = (height + ascent) / 2;
+        int baseY = profile.getTextBaseY();
 
         int currentX = startX;
         for (String token : tokens) {
@@ -229,18 +238,19 @@ public class ArithmeticCaptchaGenerator implements CaptchaGenerator {
                 // 数字使用鲜艳颜色
                 tokenColor = config.getFontColor() != null
                         ? config.getFontColor()
-                        : ColorUtil.randomVibrantColor();
+                        : ColorUtil.randomVibrantColor(config.getDecorationRandom());
             } else {
                 // 运算符和其他符号使用鲜艳颜色
-                tokenColor = ColorUtil.randomVibrantColor();
+                tokenColor = ColorUtil.randomVibrantColor(config.getDecorationRandom());
             }
 
             // 整个token轻微的随机旋转和偏移
-            double tokenAngle = Math.toRadians(RandomUtil.randomInt(-8, 8));
-            int tokenY = baseY + RandomUtil.randomInt(-2, 2);
+            double tokenAngle = Math.toRadians(config.getDecorationRandom().nextInt(-8, 8));
+            int tokenY = baseY + config.getDecorationRandom().nextInt(-2, 2);
 
             // 绘制整个token（数字内部字符紧密连接）
-            ImageUtil.drawHollowText(g2d, token, currentX, tokenY, tokenAngle, tokenColor);
+            ImageUtil.drawCaptchaHollowText(image, g2d, styledFont, token, currentX, tokenY, tokenAngle, tokenColor,
+                    config, profile);
 
             // 移动到下一个token位置
             currentX += fm.stringWidth(token) + tokenSpacing;
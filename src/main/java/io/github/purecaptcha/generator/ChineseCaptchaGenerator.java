@@ -1,13 +1,14 @@
 package io.github.purecaptcha.generator;
 
 import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.CaptchaProfile;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.RenderTarget;
 import io.github.purecaptcha.model.CaptchaResult;
 import io.github.purecaptcha.util.ColorUtil;
 import io.github.purecaptcha.util.ImageUtil;
-import io.github.purecaptcha.util.RandomUtil;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -16,6 +17,8 @@ import java.awt.image.BufferedImage;
  * 中文验证码生成器
  * <p>
  * 支持常用汉字验证码生成
+ * <p>
+ * 无状态,线程安全
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -67,32 +70,44 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
         "深", "难", "近", "矿", "千", "周", "委", "素", "技", "备"
     };
 
+    // 默认配置(中文验证码默认4个字),共享实例只编译一次
+    private static final CaptchaConfig DEFAULT_CONFIG = CaptchaConfig.builder()
+            .charLength(4)
+            .build();
+
     @Override
     public Captcha generate(CaptchaConfig config) {
-        // 生成验证码文本
-        String captchaText = generateCaptchaText(config);
+        return generate(config, ImageUtil.createImage(config.getWidth(), config.getHeight()));
+    }
 
-        // 创建图像
-        BufferedImage image = ImageUtil.createImage(config.getWidth(), config.getHeight());
-        Graphics2D g2d = ImageUtil.getGraphics(image);
+    @Override
+    public Captcha generateInto(CaptchaConfig config, RenderTarget target) {
+        return generate(config, target.canvas(config.getWidth(), config.getHeight()));
+    }
 
-        // 绘制背景
-        ImageUtil.drawBackground(g2d, config.getWidth(), config.getHeight(),
-                                config.getBackgroundColor());
+    /**
+     * 在指定画布上生成验证码
+     *
+     * @param config 配置
+     * @param image 画布(TYPE_INT_RGB,尺寸与配置一致,原有内容会被背景覆盖)
+     * @return 验证码对象
+     */
+    private Captcha generate(CaptchaConfig config, BufferedImage image) {
+        CaptchaProfile profile = config.compile();
 
-        // 绘制装饰性圆圈
-        ImageUtil.drawDecorativeCircles(g2d, config.getWidth(), config.getHeight(), 8);
+        // 生成验证码文本
+        String captchaText = generateCaptchaText(config);
+
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
 
-        // 绘制现代化干扰线
-        ImageUtil.drawModernInterferenceLines(g2d, config.getWidth(), config.getHeight(),
-                                             config.getInterferenceLineCount());
+        // 绘制背景、装饰性圆圈和干扰线
+        ImageUtil.drawCaptchaBackground(image, g2d, config, profile);
 
         // 绘制风格化中文字符
-        drawStyledChineseCharacters(g2d, captchaText, config);
+        drawStyledChineseCharacters(g2d, image, captchaText, config, profile);
 
         // 绘制少量噪点
-        ImageUtil.drawNoisePoints(g2d, config.getWidth(), config.getHeight(),
-                                 config.getNoisePointCount() / 3);
+        ImageUtil.drawCaptchaNoise(image, g2d, config, profile);
 
         g2d.dispose();
 
@@ -102,9 +117,7 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
 
     @Override
     public Captcha generate() {
-        return generate(CaptchaConfig.builder()
-                .charLength(4)  // 中文验证码默认4个字
-                .build());
+        return generate(DEFAULT_CONFIG);
     }
 
     @Override
@@ -119,10 +132,10 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
      * @return 验证码文本
      */
     private String generateCaptchaText(CaptchaConfig config) {
-        StringBuilder text = new StringBuilder();
+        StringBuilder text = new StringBuilder(config.getCharLength());
 
         for (int i = 0; i < config.getCharLength(); i++) {
-            text.append(COMMON_CHINESE[RandomUtil.randomInt(COMMON_CHINESE.length)]);
+            text.append(config.getSecretRandom().nextElement(COMMON_CHINESE));
         }
 
         return text.toString();
@@ -153,15 +166,15 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
             // 设置颜色(如果配置了固定颜色则使用,否则随机)
             Color color = config.getFontColor() != null
                     ? config.getFontColor()
-                    : ColorUtil.randomDarkColor();
+                    : ColorUtil.randomDarkColor(config.getDecorationRandom());
             g2d.setColor(color);
 
             // 计算字符位置(添加随机偏移)
-            int x = charWidth * i + RandomUtil.randomInt(charWidth / 4, charWidth / 2);
-            int y = height / 2 + RandomUtil.randomInt(-height / 8, height / 6);
+            int x = charWidth * i + config.getDecorationRandom().nextInt(charWidth / 4, charWidth / 2);
+            int y = height / 2 + config.getDecorationRandom().nextInt(-height / 8, height / 6);
 
             // 随机旋转角度(-20度到20度,中文字符旋转角度小一些)
-            double angle = Math.toRadians(RandomUtil.randomInt(-20, 20));
+            double angle = Math.toRadians(config.getDecorationRandom().nextInt(-20, 20));
 
             // 绘制旋转的字符
             ImageUtil.drawRotatedText(g2d, c, x, y, angle);
@@ -173,22 +186,22 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
      * 完全不旋转，确保不超界
      *
      * @param g2d Graphics2D对象
+     * @param image 画布
      * @param text 验证码文本
      * @param config 配置
+     * @param profile 编译后的配置(字体、度量和基线)
      */
-    private void drawStyledChineseCharacters(Graphics2D g2d, String text, CaptchaConfig config) {
+    private void drawStyledChineseCharacters(Graphics2D g2d, BufferedImage image, String text,
+                                             CaptchaConfig config, CaptchaProfile profile) {
         int width = config.getWidth();
-        int height = config.getHeight();
         int charCount = text.length();
 
         // 使用清晰的中文字体，字号稍微减小
-        Font styledFont = new Font("Microsoft YaHei UI", Font.BOLD, 
-                                   Math.max(28, config.getFont().getSize() - 2));
+        Font styledFont = profile.getChineseFont();
         g2d.setFont(styledFont);
 
         // 获取字体度量信息
-        FontMetrics fm = g2d.getFontMetrics(styledFont);
-        int ascent = fm.getAscent();
+        FontMetrics fm = profile.getChineseMetrics();
         
         // 计算所有字符的实际宽度
         int totalCharsWidth = 0;
@@ -217,7 +230,7 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
         int startX = (width - contentWidth) / 2;
         
         // Y轴居中位置
-        int baseY = (height + ascent) / 2;
+        int baseY = profile.getChineseBaseY();
 
         int currentX = startX;
         for (int i = 0; i < charCount; i++) {
@@ -227,17 +240,18 @@ public class ChineseCaptchaGenerator implements CaptchaGenerator {
             // 每个字符使用鲜艳的随机颜色
             Color charColor = config.getFontColor() != null
                     ? config.getFontColor()
-                    : ColorUtil.randomVibrantColor();
+                    : ColorUtil.randomVibrantColor(config.getDecorationRandom());
 
             // 计算字符绘制位置（字符中心点）
             int x = currentX + charWidth / 2;
-            int y = baseY + RandomUtil.randomInt(-2, 2);
+            int y = baseY + config.getDecorationRandom().nextInt(-2, 2);
 
             // 轻微旋转
-            double angle = Math.toRadians(RandomUtil.randomInt(-8, 8));
+            double angle = Math.toRadians(config.getDecorationRandom().nextInt(-8, 8));
 
             // 使用镂空字体绘制
-            ImageUtil.drawHollowText(g2d, c, x, y, angle, charColor);
+            ImageUtil.drawCaptchaHollowText(image, g2d, styledFont, c, x, y, angle, charColor,
+                    config, profile);
             
             // 移动到下一个字符位置
             currentX += charWidth + charSpacing;
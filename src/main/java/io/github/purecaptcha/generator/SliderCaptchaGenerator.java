@@ -1,14 +1,19 @@
 package io.github.purecaptcha.generator;
 
 import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.RenderMode;
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.RenderTarget;
 import io.github.purecaptcha.model.SliderCaptchaResult;
 import io.github.purecaptcha.util.BuiltinSliderBackground;
 import io.github.purecaptcha.util.ColorUtil;
 import io.github.purecaptcha.util.ImageUtil;
 import io.github.purecaptcha.util.PuzzleUtil;
+import io.github.purecaptcha.util.RandomSource;
+import io.github.purecaptcha.util.RasterKernel;
+import io.github.purecaptcha.util.SliderBackgroundCache;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -17,6 +22,8 @@ import java.awt.image.BufferedImage;
  * 滑动拼图验证码生成器
  * <p>
  * 生成带有拼图块的背景图,用户需要滑动拼图块到正确位置
+ * <p>
+ * 无状态,线程安全
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -26,27 +33,73 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
     // 默认验证容差(像素) - 优化为12px，平衡准确性和用户体验
     private static final int DEFAULT_TOLERANCE = 12;
 
+    // 默认配置(350x200),共享实例只编译一次
+    private static final CaptchaConfig DEFAULT_CONFIG = CaptchaConfig.builder()
+            .width(350)
+            .height(200)
+            .build();
+
     @Override
     public Captcha generate(CaptchaConfig config) {
         int width = config.getWidth();
         int height = config.getHeight();
 
         // 创建背景图（支持自定义图片）
-        BufferedImage backgroundImage = generateBackgroundImage(width, height, config);
+        BufferedImage backgroundImage = generateBackgroundImage(ImageUtil.createImage(width, height), config);
 
         // 复制一份用于切出拼图块
-        BufferedImage originalImage = copyImage(backgroundImage);
+        BufferedImage originalImage = ImageUtil.copyImage(backgroundImage);
+
+        // 拼图块图像
+        BufferedImage sliderImage = new BufferedImage(
+            PuzzleUtil.getPieceWidth(PuzzleUtil.getDefaultPuzzleWidth()),
+            PuzzleUtil.getDefaultPuzzleHeight(),
+            BufferedImage.TYPE_INT_ARGB
+        );
+
+        return cutPuzzle(config, backgroundImage, originalImage, sliderImage);
+    }
+
+    @Override
+    public Captcha generateInto(CaptchaConfig config, RenderTarget target) {
+        int width = config.getWidth();
+        int height = config.getHeight();
+
+        // 背景图、原图副本和拼图块都使用绘制目标中复用的画布
+        BufferedImage backgroundImage = generateBackgroundImage(target.canvas(width, height), config);
+        BufferedImage originalImage = ImageUtil.copyImage(backgroundImage, target.secondary(width, height));
+        BufferedImage sliderImage = target.piece(
+            PuzzleUtil.getPieceWidth(PuzzleUtil.getDefaultPuzzleWidth()),
+            PuzzleUtil.getDefaultPuzzleHeight()
+        );
+
+        return cutPuzzle(config, backgroundImage, originalImage, sliderImage);
+    }
+
+    /**
+     * 切出拼图块并在背景上绘制切口
+     *
+     * @param config 配置
+     * @param backgroundImage 背景图
+     * @param originalImage 背景原图副本
+     * @param sliderImage 全透明的拼图块图像
+     * @return 验证码对象
+     */
+    private Captcha cutPuzzle(CaptchaConfig config, BufferedImage backgroundImage,
+                              BufferedImage originalImage, BufferedImage sliderImage) {
+        int width = config.getWidth();
+        int height = config.getHeight();
 
         // 获取拼图块尺寸
         int puzzleWidth = PuzzleUtil.getDefaultPuzzleWidth();
         int puzzleHeight = PuzzleUtil.getDefaultPuzzleHeight();
 
-        // 生成随机拼图块位置
-        int puzzleX = PuzzleUtil.generateRandomPuzzleX(width, puzzleWidth);
-        int puzzleY = PuzzleUtil.generateRandomPuzzleY(height, puzzleHeight);
+        // 生成随机拼图块位置(X坐标即答案,使用安全随机源)
+        int puzzleX = PuzzleUtil.generateRandomPuzzleX(width, puzzleWidth, config.getSecretRandom());
+        int puzzleY = PuzzleUtil.generateRandomPuzzleY(height, puzzleHeight, config.getDecorationRandom());
 
         // 从原图切出拼图块
-        BufferedImage sliderImage = PuzzleUtil.cutPuzzlePiece(originalImage, puzzleX, puzzleY, puzzleWidth, puzzleHeight);
+        PuzzleUtil.cutPuzzlePiece(originalImage, puzzleX, puzzleY, puzzleWidth, puzzleHeight, sliderImage);
 
         // 在背景图上绘制切口阴影
         PuzzleUtil.drawPuzzleCutout(backgroundImage, puzzleX, puzzleY, puzzleWidth, puzzleHeight);
@@ -71,10 +124,7 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
 
     @Override
     public Captcha generate() {
-        return generate(CaptchaConfig.builder()
-            .width(350)
-            .height(200)
-            .build());
+        return generate(DEFAULT_CONFIG);
     }
 
     @Override
@@ -86,17 +136,21 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
      * 生成背景图像
      * <p>
      * 优先级：自定义图片路径 > 指定内置背景 > 随机内置背景 > 生成渐变背景
+     *
+     * @param image 目标画布(TYPE_INT_RGB)
+     * @param config 配置
+     * @return 绘制好背景的画布
      */
-    private BufferedImage generateBackgroundImage(int width, int height, CaptchaConfig config) {
-        BufferedImage image;
+    private BufferedImage generateBackgroundImage(BufferedImage image, CaptchaConfig config) {
+        int width = image.getWidth();
+        int height = image.getHeight();
         
         // 1. 优先：尝试加载自定义背景图片（外部文件）
         String imagePath = config.getSliderBackgroundImagePath();
         if (imagePath != null && !imagePath.trim().isEmpty()) {
-            BufferedImage customImage = ImageUtil.loadImageFromFile(imagePath);
+            BufferedImage customImage = SliderBackgroundCache.copyFromFile(imagePath, image);
             if (customImage != null) {
-                image = ImageUtil.scaleImage(customImage, width, height);
-                return image;
+                return customImage;
             } else {
                 System.out.println("警告：无法加载自定义背景图片 " + imagePath + "，尝试使用内置背景");
             }
@@ -106,33 +160,38 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
         BuiltinSliderBackground builtinBg = config.getBuiltinBackground();
         if (builtinBg == null) {
             // 未指定时随机选择一个内置背景
-            builtinBg = BuiltinSliderBackground.random();
+            builtinBg = BuiltinSliderBackground.random(config.getDecorationRandom());
         }
         
-        BufferedImage builtinImage = ImageUtil.loadImageFromResource(builtinBg.getResourcePath());
+        // 从缓存复制已解码并缩放的背景
+        BufferedImage builtinImage = SliderBackgroundCache.copyBuiltin(builtinBg, image);
         if (builtinImage != null) {
-            image = ImageUtil.scaleImage(builtinImage, width, height);
-            return image;
+            return builtinImage;
         } else {
             System.out.println("警告：无法加载内置背景图片，使用默认生成背景");
         }
         
         // 3. 最后：生成默认渐变背景（回退方案）
-        image = ImageUtil.createImage(width, height);
-        Graphics2D g2d = ImageUtil.getGraphics(image);
+        Graphics2D g2d = ImageUtil.getGraphics(image, config.getRenderProfile());
 
         // 绘制渐变背景
-        Color color1 = config.getBackgroundColor() != null ? config.getBackgroundColor() : ColorUtil.randomLightColor();
-        Color color2 = ColorUtil.randomLightColor();
+        Color color1 = config.getBackgroundColor() != null
+                ? config.getBackgroundColor()
+                : ColorUtil.randomLightColor(config.getDecorationRandom());
+        Color color2 = ColorUtil.randomLightColor(config.getDecorationRandom());
         GradientPaint gradient = new GradientPaint(0, 0, color1, width, height, color2);
         g2d.setPaint(gradient);
         g2d.fillRect(0, 0, width, height);
 
         // 添加随机图案(圆形、矩形等)
-        drawRandomShapes(g2d, width, height);
+        drawRandomShapes(g2d, width, height, config.getDecorationRandom());
 
         // 添加干扰线
-        ImageUtil.drawInterferenceLines(g2d, width, height, 3);
+        if (config.getRenderMode() == RenderMode.DIRECT_RASTER) {
+            RasterKernel.drawInterferenceLines(image, 3, config.getDecorationRandom());
+        } else {
+            ImageUtil.drawInterferenceLines(g2d, width, height, 3, config.getDecorationRandom());
+        }
 
         g2d.dispose();
         return image;
@@ -141,28 +200,28 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
     /**
      * 绘制随机图案
      */
-    private void drawRandomShapes(Graphics2D g2d, int width, int height) {
+    private void drawRandomShapes(Graphics2D g2d, int width, int height, RandomSource random) {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // 绘制 10-15 个随机形状
-        int shapeCount = 10 + (int) (Math.random() * 5);
+        int shapeCount = 10 + random.nextInt(5);
         for (int i = 0; i < shapeCount; i++) {
             // 随机颜色(半透明)
             Color color = new Color(
-                (int) (Math.random() * 255),
-                (int) (Math.random() * 255),
-                (int) (Math.random() * 255),
-                50 + (int) (Math.random() * 100)
+                random.nextInt(255),
+                random.nextInt(255),
+                random.nextInt(255),
+                50 + random.nextInt(100)
             );
             g2d.setColor(color);
 
             // 随机位置和大小
-            int x = (int) (Math.random() * width);
-            int y = (int) (Math.random() * height);
-            int size = 20 + (int) (Math.random() * 50);
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int size = 20 + random.nextInt(50);
 
             // 随机形状类型
-            int shapeType = (int) (Math.random() * 3);
+            int shapeType = random.nextInt(3);
             switch (shapeType) {
                 case 0: // 圆形
                     g2d.fillOval(x, y, size, size);
@@ -176,16 +235,4 @@ public class SliderCaptchaGenerator implements CaptchaGenerator {
             }
         }
     }
-
-    /**
-     * 复制图像
-     */
-    private BufferedImage copyImage(BufferedImage source) {
-        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), source.getType());
-        Graphics2D g2d = copy.createGraphics();
-        g2d.drawImage(source, 0, 0, null);
-        g2d.dispose();
-        return copy;
-    }
 }
-
@@ -2,13 +2,14 @@ package io.github.purecaptcha.model;
 
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.ImageFormat;
 
 import java.awt.image.BufferedImage;
 
 /**
  * 验证码基础实现类
  * <p>
- * 提供验证码接口的通用实现
+ * 提供验证码接口的通用实现,每种输出格式的编码结果在首次获取时缓存
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -23,6 +24,9 @@ public class CaptchaResult implements Captcha {
     private final int height;
     private final boolean caseSensitive;
 
+    // 按 ImageFormat 序号缓存的编码结果
+    private final byte[][] encoded = new byte[ImageFormat.values().length][];
+
     /**
      * 构造静态图片验证码
      *
@@ -77,6 +81,16 @@ public class CaptchaResult implements Captcha {
         return imageData;
     }
 
+    @Override
+    public synchronized byte[] getEncoded(ImageFormat format) {
+        byte[] data = encoded[format.ordinal()];
+        if (data == null) {
+            data = Captcha.super.getEncoded(format);
+            encoded[format.ordinal()] = data;
+        }
+        return data;
+    }
+
     @Override
     public String getAnswer() {
         return answer;
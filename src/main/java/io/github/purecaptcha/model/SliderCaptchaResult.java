@@ -2,13 +2,18 @@ package io.github.purecaptcha.model;
 
 import io.github.purecaptcha.core.Captcha;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.ImageFormat;
 
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * 滑动拼图验证码结果
  * <p>
- * 包含背景图、拼图块图、切口位置等信息
+ * 包含背景图、拼图块图、切口位置等信息。
+ * {@link #getEncoded(ImageFormat)} 输出背景图,{@link #getSliderEncoded(ImageFormat)} 输出拼图块,
+ * 两者的编码结果都按格式缓存
  *
  * @author PureCaptcha
  * @version 1.0.0
@@ -25,6 +30,10 @@ public class SliderCaptchaResult implements Captcha {
     private final int width;                      // 图像宽度
     private final int height;                     // 图像高度
     private final int tolerance;                  // 验证容差(像素)
+
+    // 按 ImageFormat 序号缓存的背景图和拼图块编码结果
+    private final byte[][] encodedBackground = new byte[ImageFormat.values().length][];
+    private final byte[][] encodedSlider = new byte[ImageFormat.values().length][];
     
     // 图像相似度阈值（0-100），超过此值认为匹配成功
     private static final double SIMILARITY_THRESHOLD = 88.0; // 88%，平衡准确性和成功率
@@ -90,6 +99,49 @@ public class SliderCaptchaResult implements Captcha {
         return null; // 滑动验证码使用两张图片,不使用单一字节数组
     }
 
+    /**
+     * 获取背景图的编码数据
+     *
+     * @param format 输出格式
+     * @return 编码数据(缓存共享,不应修改)
+     */
+    @Override
+    public byte[] getEncoded(ImageFormat format) {
+        return encode(encodedBackground, backgroundImage, format);
+    }
+
+    /**
+     * 获取拼图块的编码数据
+     * <p>
+     * 拼图块带透明通道,{@link ImageFormat#PNG_INDEXED} 时同样输出真彩色PNG,不支持 {@link ImageFormat#JPEG}
+     *
+     * @param format 输出格式
+     * @return 编码数据(缓存共享,不应修改)
+     */
+    public byte[] getSliderEncoded(ImageFormat format) {
+        return encode(encodedSlider, sliderImage, format);
+    }
+
+    /**
+     * 将拼图块的编码数据写入输出流
+     *
+     * @param out 输出流(不会被关闭)
+     * @param format 输出格式
+     * @throws IOException 写入失败
+     */
+    public void writeSliderTo(OutputStream out, ImageFormat format) throws IOException {
+        out.write(getSliderEncoded(format));
+    }
+
+    private synchronized byte[] encode(byte[][] cache, BufferedImage image, ImageFormat format) {
+        byte[] data = cache[format.ordinal()];
+        if (data == null) {
+            data = format.encode(image);
+            cache[format.ordinal()] = data;
+        }
+        return data;
+    }
+
     @Override
     public String getAnswer() {
         return String.valueOf(sliderX);
@@ -4,8 +4,12 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * 真正的 GIF 动画编码器
@@ -19,7 +23,7 @@ public class AnimatedGifEncoder {
     private int repeat = 0; // 0 = 无限循环
     private int delay = 100; // 帧延迟(毫秒)
     private boolean started = false;
-    private ByteArrayOutputStream out;
+    private OutputStream out;
     private BufferedImage image;
     private byte[] pixels;
     private byte[] indexedPixels;
@@ -30,8 +34,26 @@ public class AnimatedGifEncoder {
     private int dispose = -1;
     private boolean closeStream = false;
     private boolean firstFrame = true;
+    private IOException lastError; // 最近一次写入失败的原始异常
     private boolean sizeSet = false;
     private int sample = 10;
+    private CaptchaPalette palette;
+    private byte[] paletteTab;
+    private boolean localPalettes = false;
+    private final int[] remap = new int[256];
+
+    // 差分帧:只编码与上一帧不同的矩形区域,区域内未变化的像素写为透明
+    private boolean deltaFrames = false;
+    private int frameX;
+    private int frameY;
+    private int frameW;
+    private int frameH;
+    private boolean frameTransparent;
+    private int[] prevRgb;
+    private int[] frameRgb;
+    private int[] rectRgb;
+    private boolean[] unchanged;
+    private int unchangedCount;
 
     /**
      * 设置 GIF 帧延迟时间
@@ -51,6 +73,46 @@ public class AnimatedGifEncoder {
         }
     }
 
+    /**
+     * 设置固定调色板
+     * <p>
+     * 设置后各帧不再进行 NeuQuant 量化,像素直接通过调色板映射,所有帧共用全局颜色表
+     *
+     * @param palette 固定调色板,null表示每帧量化
+     */
+    public void setPalette(CaptchaPalette palette) {
+        this.palette = palette;
+        paletteTab = null; // 颜色表随调色板重建
+    }
+
+    /**
+     * 固定调色板模式下是否为每帧写入局部颜色表
+     * <p>
+     * 开启时每帧只保留实际用到的颜色,颜色表和 LZW 初始码长随之缩小,但每帧多写一个局部颜色表;
+     * 关闭(默认)时所有帧共用完整的全局颜色表。验证码每帧约用到60多种颜色,
+     * 局部颜色表的开销通常大于缩短码长的收益,只在帧间颜色差异很大时开启。
+     * 未设置固定调色板时每帧始终使用自己的(压缩后的)颜色表。
+     *
+     * @param localPalettes 是否使用局部颜色表
+     */
+    public void setLocalPalettes(boolean localPalettes) {
+        this.localPalettes = localPalettes;
+    }
+
+    /**
+     * 是否使用差分帧(需在添加第一帧之前设置)
+     * <p>
+     * 开启后第一帧完整编码,之后每帧只编码与上一帧不同像素的外接矩形,
+     * 矩形内未变化的像素写为透明色,帧处置方式为1(保留上一帧)。
+     * 适用于背景静止、只有字符运动的动画;开启后 {@link #setTransparent(Color)} 不再生效。
+     *
+     * @param deltaFrames 是否使用差分帧
+     */
+    public void setDeltaFrames(boolean deltaFrames) {
+        this.deltaFrames = deltaFrames;
+        paletteTab = null; // 颜色表是否预留透明色取决于差分帧
+    }
+
     /**
      * 设置透明颜色
      */
@@ -58,6 +120,18 @@ public class AnimatedGifEncoder {
         transparent = c;
     }
 
+    /**
+     * 获取最近一次写入失败的原始异常
+     * <p>
+     * {@link #start}、{@link #addFrame} 和 {@link #finish} 写入失败时返回false,
+     * 可通过本方法区分客户端断开等输出流异常与编码器自身的问题
+     *
+     * @return 原始异常,没有失败时为null
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+
     /**
      * 添加一帧图像
      */
@@ -71,8 +145,37 @@ public class AnimatedGifEncoder {
                 setSize(im.getWidth(), im.getHeight());
             }
             image = im;
-            getImagePixels();
-            analyzePixels();
+            if (deltaFrames) {
+                extractChangedRect();
+                if (palette != null) {
+                    mapRgb(rectRgb, frameW * frameH);
+                } else {
+                    unpackRect();
+                    analyzePixels();
+                }
+            } else {
+                frameX = 0;
+                frameY = 0;
+                frameW = width;
+                frameH = height;
+                if (palette != null) {
+                    mapPixels();
+                } else {
+                    getImagePixels();
+                    analyzePixels();
+                }
+            }
+            // 每帧颜色表只保留用到的颜色;固定调色板共用全局表时保持完整
+            boolean compact = palette == null || localPalettes;
+            if (compact) {
+                compactPalette();
+            }
+            if (deltaFrames) {
+                assignTransparent(compact);
+            } else if (transparent != null) {
+                transIndex = findClosest(transparent);
+            }
+            boolean local = !firstFrame && compact;
             if (firstFrame) {
                 writeLSD();
                 writePalette();
@@ -81,13 +184,15 @@ public class AnimatedGifEncoder {
                 }
             }
             writeGraphicCtrlExt();
-            writeImageDesc();
-            if (!firstFrame) {
+            writeImageDesc(local);
+            if (local) {
                 writePalette();
             }
             writePixels();
+            out.flush();
             firstFrame = false;
         } catch (IOException e) {
+            lastError = e;
             ok = false;
         }
         return ok;
@@ -95,17 +200,26 @@ public class AnimatedGifEncoder {
 
     /**
      * 开始写入 GIF
+     * <p>
+     * 可以是任意输出流(例如 HTTP 响应流),每写完一帧即刷新,客户端无需等待整个动画编码完成。
+     * 非内存输出流会包装一层缓冲,{@link #finish()} 时刷新但不关闭原输出流。
+     *
+     * @param os 输出流
+     * @return 是否成功写入文件头
      */
-    public boolean start(ByteArrayOutputStream os) {
+    public boolean start(OutputStream os) {
         if (os == null) {
             return false;
         }
         boolean ok = true;
         closeStream = false;
-        out = os;
+        lastError = null;
+        out = os instanceof ByteArrayOutputStream || os instanceof BufferedOutputStream
+                ? os : new BufferedOutputStream(os);
         try {
             writeString("GIF89a");
         } catch (IOException e) {
+            lastError = e;
             ok = false;
         }
         started = ok;
@@ -128,6 +242,7 @@ public class AnimatedGifEncoder {
                 out.close();
             }
         } catch (IOException e) {
+            lastError = e;
             ok = false;
         }
         transIndex = 0;
@@ -136,6 +251,7 @@ public class AnimatedGifEncoder {
         pixels = null;
         indexedPixels = null;
         colorTab = null;
+        paletteTab = null;
         closeStream = false;
         firstFrame = true;
         return ok;
@@ -209,10 +325,227 @@ public class AnimatedGifEncoder {
         pixels = null;
         colorDepth = 8;
         palSize = 7;
+    }
 
-        if (transparent != null) {
-            transIndex = findClosest(transparent);
+    /**
+     * 通过固定调色板映射像素
+     * TYPE_INT_RGB 图像直接读取像素数组,不再复制为 TYPE_3BYTE_BGR
+     */
+    private void mapPixels() {
+        mapRgb(currentRgb(), width * height);
+    }
+
+    /**
+     * 通过固定调色板映射 RGB 像素
+     */
+    private void mapRgb(int[] rgb, int nPix) {
+        if (indexedPixels == null || indexedPixels.length != nPix) {
+            indexedPixels = new byte[nPix];
+        }
+        if (paletteTab == null) {
+            // 差分帧模式下在全局颜色表末尾预留一个透明色
+            int entries = palette.size() + (deltaFrames && palette.size() < 256 ? 1 : 0);
+            paletteTab = new byte[entries * 3];
+            for (int i = 0; i < palette.size(); i++) {
+                int c = palette.getColor(i);
+                paletteTab[i * 3] = (byte) (c >> 16);
+                paletteTab[i * 3 + 1] = (byte) (c >> 8);
+                paletteTab[i * 3 + 2] = (byte) c;
+            }
+        }
+        colorTab = paletteTab;
+        for (int i = 0; i < usedEntry.length; i++) {
+            usedEntry[i] = i < palette.size();
+        }
+
+        palette.map(rgb, 0, nPix, indexedPixels, 0);
+        colorDepth = 8;
+        palSize = 7;
+    }
+
+    /**
+     * 获取当前帧的 RGB 像素
+     * 尺寸一致的 TYPE_INT_RGB 图像直接返回其像素数组,其他图像先转换
+     */
+    private int[] currentRgb() {
+        if (image.getWidth() == width && image.getHeight() == height
+                && image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
         }
+        BufferedImage temp = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = temp.createGraphics();
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        return ((DataBufferInt) temp.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * 计算与上一帧不同像素的外接矩形,并提取矩形内的像素
+     * 第一帧使用整幅图像;与上一帧完全相同时使用 1x1 的透明矩形
+     */
+    private void extractChangedRect() {
+        int nPix = width * height;
+        int[] cur = currentRgb();
+        if (firstFrame || prevRgb == null || prevRgb.length != nPix) {
+            frameX = 0;
+            frameY = 0;
+            frameW = width;
+            frameH = height;
+        } else {
+            int minX = width;
+            int minY = height;
+            int maxX = -1;
+            int maxY = -1;
+            for (int y = 0; y < height; y++) {
+                int row = y * width;
+                for (int x = 0; x < width; x++) {
+                    if (((cur[row + x] ^ prevRgb[row + x]) & 0xffffff) != 0) {
+                        if (x < minX) {
+                            minX = x;
+                        }
+                        if (x > maxX) {
+                            maxX = x;
+                        }
+                        if (y < minY) {
+                            minY = y;
+                        }
+                        maxY = y;
+                    }
+                }
+            }
+            if (maxX < 0) {
+                minX = 0;
+                minY = 0;
+                maxX = 0;
+                maxY = 0;
+            }
+            frameX = minX;
+            frameY = minY;
+            frameW = maxX - minX + 1;
+            frameH = maxY - minY + 1;
+        }
+
+        int rectPix = frameW * frameH;
+        if (rectRgb == null || rectRgb.length < rectPix) {
+            rectRgb = new int[nPix];
+            unchanged = new boolean[nPix];
+        }
+        boolean compare = !firstFrame && prevRgb != null && prevRgb.length == nPix;
+        unchangedCount = 0;
+        int k = 0;
+        for (int y = frameY; y < frameY + frameH; y++) {
+            int row = y * width;
+            for (int x = frameX; x < frameX + frameW; x++) {
+                int rgb = cur[row + x];
+                rectRgb[k] = rgb;
+                boolean same = compare && ((rgb ^ prevRgb[row + x]) & 0xffffff) == 0;
+                unchanged[k++] = same;
+                if (same) {
+                    unchangedCount++;
+                }
+            }
+        }
+
+        if (prevRgb == null || prevRgb.length != nPix) {
+            prevRgb = new int[nPix];
+        }
+        System.arraycopy(cur, 0, prevRgb, 0, nPix);
+    }
+
+    /**
+     * 将矩形内的像素转换为 NeuQuant 使用的 BGR 字节
+     */
+    private void unpackRect() {
+        int rectPix = frameW * frameH;
+        pixels = new byte[rectPix * 3];
+        int k = 0;
+        for (int i = 0; i < rectPix; i++) {
+            int rgb = rectRgb[i];
+            pixels[k++] = (byte) rgb;
+            pixels[k++] = (byte) (rgb >> 8);
+            pixels[k++] = (byte) (rgb >> 16);
+        }
+    }
+
+    /**
+     * 将矩形内未变化的像素设为透明色
+     * 颜色表已满256色时不使用透明,未变化的像素按原颜色编码
+     */
+    private void assignTransparent(boolean compact) {
+        frameTransparent = false;
+        if (unchangedCount == 0) {
+            return;
+        }
+        int index;
+        if (compact) {
+            int entries = colorTab.length / 3;
+            if (entries >= 256) {
+                return;
+            }
+            colorTab = Arrays.copyOf(colorTab, (entries + 1) * 3);
+            index = entries;
+            colorDepth = 1;
+            while ((1 << colorDepth) < entries + 1) {
+                colorDepth++;
+            }
+            palSize = colorDepth - 1;
+        } else {
+            index = palette.size();
+            if (index >= 256) {
+                return;
+            }
+        }
+        int rectPix = frameW * frameH;
+        for (int i = 0; i < rectPix; i++) {
+            if (unchanged[i]) {
+                indexedPixels[i] = (byte) index;
+            }
+        }
+        transIndex = index;
+        frameTransparent = true;
+    }
+
+    /**
+     * 压缩颜色表
+     * 只保留本帧用到的颜色并重新编号,颜色深度缩小到能容纳这些颜色的最小位数(至少1位)
+     */
+    private void compactPalette() {
+        int nPix = indexedPixels.length;
+        for (int i = 0; i < usedEntry.length; i++) {
+            usedEntry[i] = false;
+        }
+        boolean skipUnchanged = deltaFrames && unchangedCount > 0;
+        for (int i = 0; i < nPix; i++) {
+            if (!skipUnchanged || !unchanged[i]) {
+                usedEntry[indexedPixels[i] & 0xff] = true;
+            }
+        }
+
+        int used = 0;
+        for (int i = 0; i < usedEntry.length; i++) {
+            if (usedEntry[i]) {
+                remap[i] = used++;
+            }
+        }
+        byte[] compacted = new byte[used * 3];
+        for (int i = 0; i < usedEntry.length; i++) {
+            if (usedEntry[i]) {
+                System.arraycopy(colorTab, i * 3, compacted, remap[i] * 3, 3);
+            }
+        }
+        for (int i = 0; i < nPix; i++) {
+            indexedPixels[i] = (byte) remap[indexedPixels[i] & 0xff];
+        }
+        colorTab = compacted;
+        for (int i = 0; i < usedEntry.length; i++) {
+            usedEntry[i] = i < used;
+        }
+
+        colorDepth = 1;
+        while ((1 << colorDepth) < used) {
+            colorDepth++;
+        }
+        palSize = colorDepth - 1;
     }
 
     /**
@@ -276,7 +609,10 @@ public class AnimatedGifEncoder {
         out.write(0xf9);
         out.write(4);
         int transp, disp;
-        if (transparent == null) {
+        if (deltaFrames) {
+            transp = frameTransparent ? 1 : 0;
+            disp = 1;
+        } else if (transparent == null) {
             transp = 0;
             disp = 0;
         } else {
@@ -296,13 +632,13 @@ public class AnimatedGifEncoder {
     /**
      * 写入图像描述符
      */
-    private void writeImageDesc() throws IOException {
+    private void writeImageDesc(boolean local) throws IOException {
         out.write(0x2c);
-        writeShort(0);
-        writeShort(0);
-        writeShort(width);
-        writeShort(height);
-        if (firstFrame) {
+        writeShort(frameX);
+        writeShort(frameY);
+        writeShort(frameW);
+        writeShort(frameH);
+        if (!local) {
             out.write(0);
         } else {
             out.write(0x80 | palSize);
@@ -314,7 +650,7 @@ public class AnimatedGifEncoder {
      */
     private void writePalette() throws IOException {
         out.write(colorTab, 0, colorTab.length);
-        int n = (3 * 256) - colorTab.length;
+        int n = (3 << colorDepth) - colorTab.length;
         for (int i = 0; i < n; i++) {
             out.write(0);
         }
@@ -324,7 +660,7 @@ public class AnimatedGifEncoder {
      * 使用 LZW 压缩编码并写入像素数据
      */
     private void writePixels() throws IOException {
-        LZWEncoder encoder = new LZWEncoder(width, height, indexedPixels, colorDepth);
+        LZWEncoder encoder = new LZWEncoder(frameW, frameH, indexedPixels, colorDepth);
         encoder.encode(out);
     }
 
@@ -754,7 +1090,7 @@ public class AnimatedGifEncoder {
             initCodeSize = Math.max(2, color_depth);
         }
 
-        void encode(ByteArrayOutputStream outs) throws IOException {
+        void encode(OutputStream outs) throws IOException {
             outs.write(initCodeSize);
             remaining = imgW * imgH;
             curPixel = 0;
@@ -762,7 +1098,7 @@ public class AnimatedGifEncoder {
             outs.write(0);
         }
 
-        void compress(int init_bits, ByteArrayOutputStream outs) throws IOException {
+        void compress(int init_bits, OutputStream outs) throws IOException {
             int fcode;
             int i;
             int c;
@@ -831,7 +1167,7 @@ public class AnimatedGifEncoder {
             output(EOFCode, outs);
         }
 
-        void output(int code, ByteArrayOutputStream outs) throws IOException {
+        void output(int code, OutputStream outs) throws IOException {
             cur_accum &= masks[cur_bits];
 
             if (cur_bits > 0) {
@@ -872,7 +1208,7 @@ public class AnimatedGifEncoder {
             }
         }
 
-        void cl_block(ByteArrayOutputStream outs) throws IOException {
+        void cl_block(OutputStream outs) throws IOException {
             cl_hash(hsize);
             free_ent = ClearCode + 2;
             clear_flg = true;
@@ -885,14 +1221,14 @@ public class AnimatedGifEncoder {
             }
         }
 
-        void char_out(byte c, ByteArrayOutputStream outs) throws IOException {
+        void char_out(byte c, OutputStream outs) throws IOException {
             accum[a_count++] = c;
             if (a_count >= 254) {
                 flush_char(outs);
             }
         }
 
-        void flush_char(ByteArrayOutputStream outs) throws IOException {
+        void flush_char(OutputStream outs) throws IOException {
             if (a_count > 0) {
                 outs.write(a_count);
                 outs.write(accum, 0, a_count);
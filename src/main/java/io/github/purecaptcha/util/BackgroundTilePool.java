@@ -0,0 +1,348 @@
+package io.github.purecaptcha.util;
+
+import io.github.purecaptcha.config.RenderProfile;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * 背景图层预渲染池
+ * <p>
+ * 按 (宽度, 高度, 背景色, 装饰圆数量, 干扰线数量, 渲染档位) 维护一组预渲染的背景图块,
+ * 每个图块随机绘制装饰性圆圈和现代化干扰线。
+ * 生成验证码时随机复制一个图块,再在其上绘制字符和噪点,省去每次的半透明合成。
+ * <p>
+ * 图块的绘制不在请求线程上进行:新组合首次使用时只同步绘制第一块,其余图块由后台线程补齐;
+ * 图块被复制一定次数后由后台线程重新绘制,替换完成前旧图块继续使用。
+ * 需要连第一块也不在请求线程上绘制时,可在启动时调用 {@link #preload}。
+ * <p>
+ * 线程安全,图块只读,对外总是返回副本。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class BackgroundTilePool {
+
+    // 每组图块数量
+    private static final int DEFAULT_TILES_PER_KEY = 16;
+
+    // 单个图块最多被复制的次数
+    private static final int DEFAULT_MAX_USES = 64;
+
+    // 最多保留的尺寸/样式组合
+    private static final int MAX_KEYS = 32;
+
+    private static volatile int tilesPerKey = DEFAULT_TILES_PER_KEY;
+    private static volatile int maxUses = DEFAULT_MAX_USES;
+
+    private static final ConcurrentMap<TileKey, TileSet> TILE_SETS = new ConcurrentHashMap<>();
+
+    // 后台绘制线程;每个图块同时最多有一个待执行任务,队列长度不超过 组合数 x 图块数
+    private static final ExecutorService RENDERER = new ThreadPoolExecutor(1, 1,
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "purecaptcha-tile-renderer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    /**
+     * 获取一个随机背景图块的副本
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @param backgroundColor 背景颜色
+     * @param circleCount 装饰圆数量
+     * @param lineCount 干扰线数量
+     * @return 背景图像副本(TYPE_INT_RGB,可自由绘制)
+     */
+    public static BufferedImage copyTile(int width, int height, Color backgroundColor,
+                                         int circleCount, int lineCount) {
+        return copyTile(ImageUtil.createImage(width, height), backgroundColor, circleCount, lineCount);
+    }
+
+    /**
+     * 将一个随机背景图块复制到已有画布(图块尺寸取画布尺寸,使用完整渲染档位)
+     *
+     * @param target 目标画布(TYPE_INT_RGB)
+     * @param backgroundColor 背景颜色
+     * @param circleCount 装饰圆数量
+     * @param lineCount 干扰线数量
+     * @return 目标画布
+     */
+    public static BufferedImage copyTile(BufferedImage target, Color backgroundColor,
+                                         int circleCount, int lineCount) {
+        return copyTile(target, backgroundColor, circleCount, lineCount,
+                        RenderProfile.QUALITY, RandomSource.fast());
+    }
+
+    /**
+     * 将一个随机背景图块复制到已有画布(图块尺寸取画布尺寸)
+     *
+     * @param target 目标画布(TYPE_INT_RGB)
+     * @param backgroundColor 背景颜色
+     * @param circleCount 装饰圆数量
+     * @param lineCount 干扰线数量
+     * @param profile 渲染档位
+     * @param random 装饰随机数来源(用于绘制图块和挑选图块)
+     * @return 目标画布
+     */
+    public static BufferedImage copyTile(BufferedImage target, Color backgroundColor,
+                                         int circleCount, int lineCount,
+                                         RenderProfile profile, RandomSource random) {
+        final TileKey key = new TileKey(target.getWidth(), target.getHeight(), backgroundColor.getRGB(),
+                                        circleCount, lineCount, profile);
+        TileSet tileSet = TILE_SETS.get(key);
+        if (tileSet == null) {
+            if (TILE_SETS.size() >= MAX_KEYS) {
+                TILE_SETS.clear();
+            }
+            final RandomSource tileRandom = random;
+            // 同一组合的并发首次请求只绘制一次第一块图块,其余图块交给后台线程
+            tileSet = TILE_SETS.computeIfAbsent(key, new Function<TileKey, TileSet>() {
+                @Override
+                public TileSet apply(TileKey k) {
+                    TileSet created = new TileSet(k, tilesPerKey, tileRandom);
+                    created.add(created.render());
+                    return created;
+                }
+            });
+            tileSet.scheduleFill();
+        }
+        return ImageUtil.copyImage(tileSet.take(random), target);
+    }
+
+    /**
+     * 在当前线程预先渲染指定组合的全部图块(使用完整渲染档位)
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @param backgroundColor 背景颜色
+     * @param circleCount 装饰圆数量
+     * @param lineCount 干扰线数量
+     */
+    public static void preload(int width, int height, Color backgroundColor, int circleCount, int lineCount) {
+        preload(width, height, backgroundColor, circleCount, lineCount, RenderProfile.QUALITY, RandomSource.fast());
+    }
+
+    /**
+     * 在当前线程预先渲染指定组合的全部图块
+     *
+     * @param width 宽度
+     * @param height 高度
+     * @param backgroundColor 背景颜色
+     * @param circleCount 装饰圆数量
+     * @param lineCount 干扰线数量
+     * @param profile 渲染档位
+     * @param random 装饰随机数来源
+     */
+    public static void preload(int width, int height, Color backgroundColor, int circleCount, int lineCount,
+                               RenderProfile profile, RandomSource random) {
+        TileKey key = new TileKey(width, height, backgroundColor.getRGB(), circleCount, lineCount, profile);
+        TileSet tileSet = new TileSet(key, tilesPerKey, random);
+        while (!tileSet.isFull()) {
+            tileSet.add(tileSet.render());
+        }
+        TILE_SETS.put(key, tileSet);
+    }
+
+    /**
+     * 设置每组图块数量(对之后新建的组合生效)
+     *
+     * @param count 图块数量
+     */
+    public static void setTilesPerKey(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count必须大于0");
+        }
+        tilesPerKey = count;
+    }
+
+    /**
+     * 设置单个图块最多被复制的次数,超过后由后台线程重新绘制
+     *
+     * @param uses 最大复制次数
+     */
+    public static void setMaxUses(int uses) {
+        if (uses < 1) {
+            throw new IllegalArgumentException("uses必须大于0");
+        }
+        maxUses = uses;
+    }
+
+    /**
+     * 清空所有图块
+     */
+    public static void clear() {
+        TILE_SETS.clear();
+    }
+
+    /**
+     * 同一组合的一组图块
+     * <p>
+     * 图块按下标顺序填充,只从已填充的图块中挑选;替换时直接覆盖同一下标
+     */
+    private static class TileSet {
+        final TileKey key;
+        final RandomSource random;
+        final AtomicReferenceArray<BufferedImage> tiles;
+        final AtomicInteger[] uses;
+        final AtomicBoolean[] refreshing;
+        final AtomicInteger filled = new AtomicInteger();
+        final AtomicBoolean filling = new AtomicBoolean(false);
+
+        TileSet(TileKey key, int count, RandomSource random) {
+            this.key = key;
+            this.random = random;
+            this.tiles = new AtomicReferenceArray<>(count);
+            this.uses = new AtomicInteger[count];
+            this.refreshing = new AtomicBoolean[count];
+            for (int i = 0; i < count; i++) {
+                uses[i] = new AtomicInteger();
+                refreshing[i] = new AtomicBoolean(false);
+            }
+        }
+
+        boolean isFull() {
+            return filled.get() >= tiles.length();
+        }
+
+        /**
+         * 追加一块图块(只由创建线程或后台线程调用,同一时刻只有一个调用方)
+         */
+        void add(BufferedImage tile) {
+            int index = filled.get();
+            tiles.set(index, tile);
+            filled.set(index + 1);
+        }
+
+        BufferedImage take(RandomSource picker) {
+            int index = picker.nextInt(filled.get());
+            BufferedImage tile = tiles.get(index);
+
+            // 达到复用上限时交给后台线程重新绘制,替换前继续使用旧图块
+            if (uses[index].incrementAndGet() > maxUses) {
+                scheduleRefresh(index);
+            }
+            return tile;
+        }
+
+        /**
+         * 由后台线程补齐剩余图块
+         */
+        void scheduleFill() {
+            if (isFull() || !filling.compareAndSet(false, true)) {
+                return;
+            }
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    while (!isFull()) {
+                        add(render());
+                    }
+                }
+            }, filling);
+        }
+
+        void scheduleRefresh(final int index) {
+            if (!refreshing[index].compareAndSet(false, true)) {
+                return;
+            }
+            submit(new Runnable() {
+                @Override
+                public void run() {
+                    tiles.set(index, render());
+                    uses[index].set(0);
+                }
+            }, refreshing[index]);
+        }
+
+        private void submit(final Runnable task, final AtomicBoolean flag) {
+            try {
+                RENDERER.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            task.run();
+                        } finally {
+                            flag.set(false);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                flag.set(false);
+            }
+        }
+
+        BufferedImage render() {
+            BufferedImage tile = ImageUtil.createImage(key.width, key.height);
+            Graphics2D g2d = ImageUtil.getGraphics(tile, key.profile);
+            ImageUtil.drawBackground(g2d, key.width, key.height, new Color(key.backgroundRgb, true));
+            ImageUtil.drawDecorativeCircles(g2d, key.width, key.height, key.circleCount, random);
+            ImageUtil.drawModernInterferenceLines(g2d, key.width, key.height, key.lineCount, random);
+            g2d.dispose();
+            return tile;
+        }
+    }
+
+    /**
+     * 图块组合键
+     */
+    private static class TileKey {
+        final int width;
+        final int height;
+        final int backgroundRgb;
+        final int circleCount;
+        final int lineCount;
+        final RenderProfile profile;
+
+        TileKey(int width, int height, int backgroundRgb, int circleCount, int lineCount,
+                RenderProfile profile) {
+            this.width = width;
+            this.height = height;
+            this.backgroundRgb = backgroundRgb;
+            this.circleCount = circleCount;
+            this.lineCount = lineCount;
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey) o;
+            return width == other.width && height == other.height && backgroundRgb == other.backgroundRgb
+                    && circleCount == other.circleCount && lineCount == other.lineCount
+                    && profile == other.profile;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + height;
+            result = 31 * result + backgroundRgb;
+            result = 31 * result + circleCount;
+            result = 31 * result + lineCount;
+            return 31 * result + profile.hashCode();
+        }
+    }
+}
@@ -82,9 +82,14 @@ public enum BuiltinSliderBackground {
      * 随机获取一个内置背景
      */
     public static BuiltinSliderBackground random() {
-        BuiltinSliderBackground[] values = values();
-        int index = RandomUtil.randomInt(values.length);
-        return values[index];
+        return random(RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源获取一个内置背景
+     */
+    public static BuiltinSliderBackground random(RandomSource random) {
+        return random.nextElement(values());
     }
 }
 
@@ -0,0 +1,427 @@
+package io.github.purecaptcha.util;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 验证码调色板
+ * <p>
+ * 将字符验证码量化为不超过256色的调色板,用于输出 PNG-8 索引色图像。
+ * 字符验证码的像素绝大部分是少数几种颜色:背景色、15种鲜艳色及镂空文字的外描边和内高光,
+ * 其余是抗锯齿边缘、装饰圆圈和噪点产生的过渡色。
+ * <p>
+ * 调色板构建顺序:
+ * <ol>
+ *   <li>图像中实际出现的已知颜色(白色背景、鲜艳色及其描边/高光变体),保证文字轮廓颜色不失真</li>
+ *   <li>其余颜色按出现次数从高到低补满</li>
+ * </ol>
+ * 图像颜色数不超过调色板容量时为无损量化。其余像素通过 RGB555 查找表映射到最接近的调色板颜色,
+ * 同一查找格只计算一次最近颜色,查找表按线程复用。
+ * <p>
+ * 另外提供与图像无关的固定调色板 {@link #fixed(Color, Color)},用于 GIF 动画验证码:
+ * 由配置预先确定,完整的 RGB555 反查表在创建时一次算好,此后每个像素的映射都是O(1)。
+ * <p>
+ * 构建后不可变,线程安全。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public final class CaptchaPalette {
+
+    /**
+     * 调色板最大颜色数
+     */
+    public static final int MAX_COLORS = 256;
+
+    // 已知颜色(与 ImageUtil.drawHollowText 的三次描边颜色一致)
+    private static final int[] KNOWN_COLORS = knownColors();
+
+    // 调色板编号,用于区分线程查找表中的缓存结果
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    // 每个线程的直方图和查找表
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<Context>() {
+        @Override
+        protected Context initialValue() {
+            return new Context();
+        }
+    };
+
+    private final int id;
+    private final int[] colors;
+    private final boolean lossless;
+
+    // 调色板颜色的精确匹配表(开放寻址,键为 rgb | 0x1000000,0 表示空)
+    private final int[] exactKeys;
+    private final byte[] exactIndices;
+
+    // 固定调色板预先计算的 RGB555 反查表,其他调色板为null
+    private final byte[] inverse;
+
+    private CaptchaPalette(int[] colors, boolean lossless) {
+        this(colors, lossless, false);
+    }
+
+    private CaptchaPalette(int[] colors, boolean lossless, boolean precompute) {
+        int next = IDS.incrementAndGet();
+        this.id = next != 0 ? next : IDS.incrementAndGet();
+        this.colors = colors;
+        this.lossless = lossless;
+
+        this.exactKeys = new int[MAX_COLORS * 2];
+        this.exactIndices = new byte[MAX_COLORS * 2];
+        int mask = exactKeys.length - 1;
+        for (int i = 0; i < colors.length; i++) {
+            int key = colors[i] | 0x1000000;
+            int slot = hash(colors[i]) & mask;
+            while (exactKeys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            exactKeys[slot] = key;
+            exactIndices[slot] = (byte) i;
+        }
+
+        if (precompute) {
+            // 以每个查找格的中心颜色计算最近的调色板颜色
+            this.inverse = new byte[1 << 15];
+            for (int cell = 0; cell < inverse.length; cell++) {
+                int rgb = ((cell & 0x7c00) << 9) | ((cell & 0x03e0) << 6) | ((cell & 0x001f) << 3) | 0x040404;
+                inverse[cell] = (byte) nearest(rgb);
+            }
+        } else {
+            this.inverse = null;
+        }
+    }
+
+    /**
+     * 根据图像像素构建调色板
+     *
+     * @param pixels 像素数组(RGB,忽略透明通道)
+     * @param offset 起始位置
+     * @param length 像素数量
+     * @param maxColors 最大颜色数(2-256)
+     * @return 调色板
+     */
+    public static CaptchaPalette build(int[] pixels, int offset, int length, int maxColors) {
+        if (maxColors < 2 || maxColors > MAX_COLORS) {
+            throw new IllegalArgumentException("maxColors必须在2到256之间");
+        }
+        Context ctx = CONTEXT.get();
+        int distinct = ctx.countColors(pixels, offset, length);
+
+        // 颜色数不超过容量,直接使用全部颜色
+        if (distinct <= maxColors) {
+            return new CaptchaPalette(Arrays.copyOf(ctx.distinctColors, distinct), true);
+        }
+
+        int[] selected = new int[maxColors];
+        int size = 0;
+
+        // 1. 图像中出现的已知颜色
+        for (int known : KNOWN_COLORS) {
+            if (size < maxColors && ctx.count(known) > 0) {
+                selected[size++] = known;
+            }
+        }
+
+        // 2. 其余颜色按出现次数从高到低补满(次数在高位,排序后从末尾取)
+        long[] ranked = ctx.ranked(distinct);
+        for (int i = 0; i < distinct; i++) {
+            int rgb = ctx.distinctColors[i];
+            ranked[i] = ((long) ctx.count(rgb) << 24) | rgb;
+        }
+        Arrays.sort(ranked, 0, distinct);
+        for (int i = distinct - 1; i >= 0 && size < maxColors; i--) {
+            int rgb = (int) (ranked[i] & 0xffffff);
+            if (!isKnown(rgb)) {
+                selected[size++] = rgb;
+            }
+        }
+
+        return new CaptchaPalette(Arrays.copyOf(selected, size), false);
+    }
+
+    /**
+     * 创建GIF动画验证码使用的固定调色板
+     * <p>
+     * 包含背景色、文字颜色(未指定时为15种鲜艳色)及其描边/高光变体、
+     * 背景色到各文字颜色的抗锯齿过渡色、16级灰度,其余用均匀分布的 5x6x5 颜色立方补满。
+     * 创建时计算完整的反查表,开销约几十毫秒,应按配置缓存(见 CaptchaProfile)。
+     *
+     * @param background 背景色
+     * @param fontColor 文字颜色,null表示随机鲜艳色
+     * @return 固定调色板
+     */
+    public static CaptchaPalette fixed(Color background, Color fontColor) {
+        Color[] textColors = fontColor != null ? new Color[]{fontColor} : ColorUtil.getVibrantColors();
+        int[] candidates = new int[MAX_COLORS * 2];
+        int count = 0;
+
+        int bg = background.getRGB() & 0xffffff;
+        candidates[count++] = bg;
+        for (Color color : textColors) {
+            candidates[count++] = color.getRGB() & 0xffffff;
+            candidates[count++] = ColorUtil.darken(color, 0.1f).getRGB() & 0xffffff;
+            candidates[count++] = ColorUtil.brighten(color, 0.3f).getRGB() & 0xffffff;
+        }
+        for (Color color : textColors) {
+            int rgb = color.getRGB() & 0xffffff;
+            for (int step = 1; step <= 3; step++) {
+                candidates[count++] = blend(bg, rgb, step, 4);
+            }
+        }
+        for (int level = 0; level < 16; level++) {
+            int v = level * 17;
+            candidates[count++] = (v << 16) | (v << 8) | v;
+        }
+        for (int r = 0; r < 5; r++) {
+            for (int g = 0; g < 6; g++) {
+                for (int b = 0; b < 5; b++) {
+                    candidates[count++] = ((r * 255 / 4) << 16) | ((g * 255 / 5) << 8) | (b * 255 / 4);
+                }
+            }
+        }
+
+        // 去重并截断到调色板容量(靠前的颜色优先)
+        int[] colors = new int[MAX_COLORS];
+        int size = 0;
+        for (int i = 0; i < count && size < MAX_COLORS; i++) {
+            int rgb = candidates[i];
+            boolean duplicate = false;
+            for (int j = 0; j < size && !duplicate; j++) {
+                duplicate = colors[j] == rgb;
+            }
+            if (!duplicate) {
+                colors[size++] = rgb;
+            }
+        }
+        return new CaptchaPalette(Arrays.copyOf(colors, size), false, true);
+    }
+
+    /**
+     * 将像素映射为调色板索引
+     *
+     * @param pixels 像素数组(RGB,忽略透明通道)
+     * @param offset 起始位置
+     * @param length 像素数量
+     * @param out 索引输出数组
+     * @param outOffset 输出起始位置
+     */
+    public void map(int[] pixels, int offset, int length, byte[] out, int outOffset) {
+        Context ctx = inverse == null ? CONTEXT.get() : null;
+        int lastRgb = -1;
+        byte lastIndex = 0;
+        for (int i = 0; i < length; i++) {
+            int rgb = pixels[offset + i] & 0xffffff;
+            if (rgb != lastRgb) {
+                lastRgb = rgb;
+                int exact = exactIndex(rgb);
+                if (exact >= 0) {
+                    lastIndex = (byte) exact;
+                } else if (inverse != null) {
+                    lastIndex = inverse[rgb555(rgb)];
+                } else {
+                    lastIndex = (byte) nearestCached(ctx, rgb);
+                }
+            }
+            out[outOffset + i] = lastIndex;
+        }
+    }
+
+    /**
+     * 获取调色板颜色数
+     *
+     * @return 颜色数
+     */
+    public int size() {
+        return colors.length;
+    }
+
+    /**
+     * 获取调色板颜色
+     *
+     * @param index 索引
+     * @return RGB颜色值
+     */
+    public int getColor(int index) {
+        return colors[index];
+    }
+
+    /**
+     * 是否为无损量化(图像全部颜色都在调色板中)
+     *
+     * @return 是否无损
+     */
+    public boolean isLossless() {
+        return lossless;
+    }
+
+    private int exactIndex(int rgb) {
+        int mask = exactKeys.length - 1;
+        int key = rgb | 0x1000000;
+        int slot = hash(rgb) & mask;
+        while (exactKeys[slot] != 0) {
+            if (exactKeys[slot] == key) {
+                return exactIndices[slot] & 0xff;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 通过 RGB555 查找表获取最接近的调色板颜色
+     */
+    private int nearestCached(Context ctx, int rgb) {
+        int cell = rgb555(rgb);
+        if (ctx.lutStamps[cell] == id) {
+            return ctx.lut[cell] & 0xff;
+        }
+        int index = nearest(rgb);
+        ctx.lut[cell] = (byte) index;
+        ctx.lutStamps[cell] = id;
+        return index;
+    }
+
+    /**
+     * 线性查找最接近的调色板颜色(按人眼对绿色最敏感加权)
+     */
+    private int nearest(int rgb) {
+        int r = (rgb >> 16) & 0xff;
+        int g = (rgb >> 8) & 0xff;
+        int b = rgb & 0xff;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < colors.length; i++) {
+            int c = colors[i];
+            int dr = ((c >> 16) & 0xff) - r;
+            int dg = ((c >> 8) & 0xff) - g;
+            int db = (c & 0xff) - b;
+            int distance = 3 * dr * dr + 4 * dg * dg + 2 * db * db;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private static int rgb555(int rgb) {
+        return ((rgb >> 9) & 0x7c00) | ((rgb >> 6) & 0x03e0) | ((rgb >> 3) & 0x001f);
+    }
+
+    private static int blend(int from, int to, int step, int steps) {
+        int r = (((from >> 16) & 0xff) * (steps - step) + ((to >> 16) & 0xff) * step) / steps;
+        int g = (((from >> 8) & 0xff) * (steps - step) + ((to >> 8) & 0xff) * step) / steps;
+        int b = ((from & 0xff) * (steps - step) + (to & 0xff) * step) / steps;
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static boolean isKnown(int rgb) {
+        for (int known : KNOWN_COLORS) {
+            if (known == rgb) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(int rgb) {
+        int h = rgb * 0x9E3779B1;
+        return h ^ (h >>> 15);
+    }
+
+    private static int[] knownColors() {
+        Color[] vibrant = ColorUtil.getVibrantColors();
+        int[] known = new int[1 + vibrant.length * 3];
+        int i = 0;
+        known[i++] = Color.WHITE.getRGB() & 0xffffff;
+        for (Color color : vibrant) {
+            known[i++] = color.getRGB() & 0xffffff;
+            known[i++] = ColorUtil.darken(color, 0.1f).getRGB() & 0xffffff;
+            known[i++] = ColorUtil.brighten(color, 0.3f).getRGB() & 0xffffff;
+        }
+        return known;
+    }
+
+    /**
+     * 线程私有的颜色直方图和最近颜色查找表
+     */
+    private static class Context {
+        final byte[] lut = new byte[1 << 15];
+        final int[] lutStamps = new int[1 << 15];
+        int[] distinctColors = new int[1024];
+        private int[] keys = new int[4096];
+        private int[] counts = new int[4096];
+        private long[] ranked = new long[0];
+
+        /**
+         * 统计颜色直方图
+         *
+         * @return 不同颜色的数量
+         */
+        int countColors(int[] pixels, int offset, int length) {
+            int capacity = Integer.highestOneBit(Math.max(64, length) * 2);
+            if (keys.length < capacity) {
+                keys = new int[capacity];
+                counts = new int[capacity];
+            } else {
+                Arrays.fill(keys, 0);
+            }
+            int mask = keys.length - 1;
+            int distinct = 0;
+
+            int i = 0;
+            while (i < length) {
+                // 连续相同的像素(大面积背景)合并计数
+                int rgb = pixels[offset + i] & 0xffffff;
+                int run = 1;
+                while (i + run < length && (pixels[offset + i + run] & 0xffffff) == rgb) {
+                    run++;
+                }
+                i += run;
+
+                int key = rgb | 0x1000000;
+                int slot = hash(rgb) & mask;
+                while (keys[slot] != 0 && keys[slot] != key) {
+                    slot = (slot + 1) & mask;
+                }
+                if (keys[slot] == 0) {
+                    keys[slot] = key;
+                    counts[slot] = run;
+                    if (distinct == distinctColors.length) {
+                        distinctColors = Arrays.copyOf(distinctColors, distinct * 2);
+                    }
+                    distinctColors[distinct++] = rgb;
+                } else {
+                    counts[slot] += run;
+                }
+            }
+            return distinct;
+        }
+
+        /**
+         * 查询颜色在最近一次统计中的出现次数
+         */
+        int count(int rgb) {
+            int mask = keys.length - 1;
+            int key = rgb | 0x1000000;
+            int slot = hash(rgb) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return counts[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return 0;
+        }
+
+        long[] ranked(int size) {
+            if (ranked.length < size) {
+                ranked = new long[Math.max(size, ranked.length * 2)];
+            }
+            return ranked;
+        }
+    }
+}
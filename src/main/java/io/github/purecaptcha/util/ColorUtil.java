@@ -29,9 +29,21 @@ public class ColorUtil {
      * @return 随机颜色
      */
     public static Color randomColor(int min, int max) {
-        int r = RandomUtil.randomInt(min, max);
-        int g = RandomUtil.randomInt(min, max);
-        int b = RandomUtil.randomInt(min, max);
+        return randomColor(min, max, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源生成指定范围内的随机颜色
+     *
+     * @param min RGB最小值(0-255)
+     * @param max RGB最大值(0-255)
+     * @param random 随机数来源
+     * @return 随机颜色
+     */
+    public static Color randomColor(int min, int max, RandomSource random) {
+        int r = random.nextInt(min, max);
+        int g = random.nextInt(min, max);
+        int b = random.nextInt(min, max);
         return new Color(r, g, b);
     }
 
@@ -44,6 +56,16 @@ public class ColorUtil {
         return randomColor(0, 120);
     }
 
+    /**
+     * 使用指定随机数来源生成深色(用于字体)
+     *
+     * @param random 随机数来源
+     * @return 深色
+     */
+    public static Color randomDarkColor(RandomSource random) {
+        return randomColor(0, 120, random);
+    }
+
     /**
      * 生成浅色(用于背景)
      *
@@ -53,6 +75,16 @@ public class ColorUtil {
         return randomColor(200, 255);
     }
 
+    /**
+     * 使用指定随机数来源生成浅色(用于背景)
+     *
+     * @param random 随机数来源
+     * @return 浅色
+     */
+    public static Color randomLightColor(RandomSource random) {
+        return randomColor(200, 255, random);
+    }
+
     /**
      * 颜色渐变
      *
@@ -99,7 +131,26 @@ public class ColorUtil {
      * @return 鲜艳颜色
      */
     public static Color randomVibrantColor() {
-        return VIBRANT_COLORS[RandomUtil.randomInt(VIBRANT_COLORS.length)];
+        return randomVibrantColor(RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源获取一个鲜艳的颜色
+     *
+     * @param random 随机数来源
+     * @return 鲜艳颜色
+     */
+    public static Color randomVibrantColor(RandomSource random) {
+        return VIBRANT_COLORS[random.nextInt(VIBRANT_COLORS.length)];
+    }
+
+    /**
+     * 获取全部鲜艳颜色
+     *
+     * @return 鲜艳颜色数组(副本)
+     */
+    public static Color[] getVibrantColors() {
+        return VIBRANT_COLORS.clone();
     }
 
     /**
@@ -0,0 +1,263 @@
+package io.github.purecaptcha.util;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * data URI 编码工具
+ * <p>
+ * 将图像数据直接编码为 {@code data:image/png;base64,...} 形式,Base64 字符边编码边写出,
+ * 不再经过 PNG 字节数组、Base64 字符串和字符串拼接等中间副本:
+ * <ul>
+ *   <li>{@link #writePng(BufferedImage, Writer)}:PNG 编码结果直接以 Base64 写入响应 Writer</li>
+ *   <li>{@link #encodePng(BufferedImage)}:写入线程私有的缓冲区,只在最后生成一次字符串(用于 JSON 字段)</li>
+ *   <li>{@link #open(Writer, String)}:返回 Base64 输出流,可接入任意编码器</li>
+ * </ul>
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class DataUriEncoder {
+
+    private static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    // 超过该容量的线程缓冲区用完后丢弃,避免偶发的大图长期占用内存
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(16 * 1024);
+        }
+    };
+
+    private DataUriEncoder() {
+    }
+
+    /**
+     * 将图像编码为 PNG data URI 字符串
+     *
+     * @param image 图像
+     * @return data URI
+     */
+    public static String encodePng(BufferedImage image) {
+        return encode(image, false);
+    }
+
+    /**
+     * 将图像编码为 PNG-8 索引色 data URI 字符串(适用于文字类验证码)
+     *
+     * @param image 图像
+     * @return data URI
+     */
+    public static String encodeIndexedPng(BufferedImage image) {
+        return encode(image, true);
+    }
+
+    /**
+     * 将已编码的数据转换为 data URI 字符串
+     *
+     * @param data 图像数据
+     * @param mimeType MIME类型,例如 image/gif
+     * @return data URI
+     */
+    public static String encode(byte[] data, String mimeType) {
+        StringBuilder builder = new StringBuilder(length(data.length, mimeType));
+        try (Base64Output base64 = new Base64Output(null, builder, mimeType)) {
+            base64.write(data, 0, data.length);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 将图像以 PNG data URI 形式写入 Writer
+     *
+     * @param image 图像
+     * @param out 字符输出(不会被关闭)
+     * @throws IOException 写入失败
+     */
+    public static void writePng(BufferedImage image, Writer out) throws IOException {
+        try (Base64Output base64 = new Base64Output(out, null, "image/png")) {
+            PngEncoder.write(image, base64);
+        }
+    }
+
+    /**
+     * 将已编码的数据以 data URI 形式写入 Writer
+     *
+     * @param data 图像数据
+     * @param mimeType MIME类型
+     * @param out 字符输出(不会被关闭)
+     * @throws IOException 写入失败
+     */
+    public static void write(byte[] data, String mimeType, Writer out) throws IOException {
+        try (Base64Output base64 = new Base64Output(out, null, mimeType)) {
+            base64.write(data, 0, data.length);
+        }
+    }
+
+    /**
+     * 打开一个 data URI 输出流
+     * <p>
+     * 立即写出 {@code data:<mimeType>;base64,} 前缀,写入的字节以 Base64 编码后输出到 Writer,
+     * 关闭流时补齐填充字符(不会关闭 Writer)。
+     *
+     * @param out 字符输出
+     * @param mimeType MIME类型
+     * @return Base64 输出流
+     * @throws IOException 写入前缀失败
+     */
+    public static OutputStream open(Writer out, String mimeType) throws IOException {
+        return new Base64Output(out, null, mimeType);
+    }
+
+    /**
+     * 计算 data URI 的字符长度(用于预先分配缓冲区)
+     *
+     * @param byteCount 图像数据字节数
+     * @param mimeType MIME类型
+     * @return 字符数
+     */
+    public static int length(int byteCount, String mimeType) {
+        return 5 + mimeType.length() + 8 + (byteCount + 2) / 3 * 4;
+    }
+
+    private static String encode(BufferedImage image, boolean indexed) {
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        try (Base64Output base64 = new Base64Output(null, builder, "image/png")) {
+            if (indexed) {
+                PngEncoder.writeIndexed(image, base64, CaptchaPalette.MAX_COLORS, PngEncoder.DEFAULT_LEVEL);
+            } else {
+                PngEncoder.write(image, base64);
+            }
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        String result = builder.toString();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Base64 输出流,字符经固定缓冲区批量写入 Writer 或 StringBuilder
+     */
+    private static class Base64Output extends OutputStream {
+        private final Writer writer;
+        private final StringBuilder builder;
+        private final char[] chars = new char[1024];
+        private int charCount;
+
+        // 尚未凑满3字节的剩余输入
+        private int pending;
+        private int pendingCount;
+        private boolean closed;
+
+        Base64Output(Writer writer, StringBuilder builder, String mimeType) throws IOException {
+            this.writer = writer;
+            this.builder = builder;
+            append("data:");
+            append(mimeType);
+            append(";base64,");
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            pending = (pending << 8) | (b & 0xff);
+            if (++pendingCount == 3) {
+                emit(pending);
+                pending = 0;
+                pendingCount = 0;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int end = off + len;
+            // 先补齐上次剩余的字节
+            while (pendingCount != 0 && off < end) {
+                write(b[off++]);
+            }
+            int groupsEnd = off + (end - off) / 3 * 3;
+            for (; off < groupsEnd; off += 3) {
+                emit(((b[off] & 0xff) << 16) | ((b[off + 1] & 0xff) << 8) | (b[off + 2] & 0xff));
+            }
+            while (off < end) {
+                write(b[off++]);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (pendingCount == 1) {
+                ensureRoom();
+                chars[charCount++] = ALPHABET[(pending >> 2) & 0x3f];
+                chars[charCount++] = ALPHABET[(pending << 4) & 0x3f];
+                chars[charCount++] = '=';
+                chars[charCount++] = '=';
+            } else if (pendingCount == 2) {
+                ensureRoom();
+                chars[charCount++] = ALPHABET[(pending >> 10) & 0x3f];
+                chars[charCount++] = ALPHABET[(pending >> 4) & 0x3f];
+                chars[charCount++] = ALPHABET[(pending << 2) & 0x3f];
+                chars[charCount++] = '=';
+            }
+            drain();
+        }
+
+        private void emit(int group) throws IOException {
+            ensureRoom();
+            chars[charCount++] = ALPHABET[(group >> 18) & 0x3f];
+            chars[charCount++] = ALPHABET[(group >> 12) & 0x3f];
+            chars[charCount++] = ALPHABET[(group >> 6) & 0x3f];
+            chars[charCount++] = ALPHABET[group & 0x3f];
+        }
+
+        private void ensureRoom() throws IOException {
+            if (charCount + 4 > chars.length) {
+                drain();
+            }
+        }
+
+        private void append(String text) throws IOException {
+            if (builder != null) {
+                builder.append(text);
+            } else {
+                writer.write(text);
+            }
+        }
+
+        private void drain() throws IOException {
+            if (charCount == 0) {
+                return;
+            }
+            if (builder != null) {
+                builder.append(chars, 0, charCount);
+            } else {
+                writer.write(chars, 0, charCount);
+            }
+            charCount = 0;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package io.github.purecaptcha.util;
 
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * GIF 动画编码器
@@ -20,17 +22,20 @@ public class GifEncoder {
     private int delay = 100; // 帧延迟(毫秒)
     private int repeat = 0;  // 循环次数(0=无限循环)
     
-    private ByteArrayOutputStream out;
+    private OutputStream out;
     private BufferedImage firstImage;
     private boolean started = false;
 
     /**
      * 开始 GIF 编码
+     * <p>
+     * 可以是任意输出流,每添加一帧即刷新;非内存输出流会包装一层缓冲
      *
-     * @param os 输出流
+     * @param os 输出流(不会被关闭)
      */
-    public void start(ByteArrayOutputStream os) {
-        this.out = os;
+    public void start(OutputStream os) {
+        this.out = os instanceof ByteArrayOutputStream || os instanceof BufferedOutputStream
+                ? os : new BufferedOutputStream(os);
         this.started = false;
     }
 
@@ -68,6 +73,7 @@ public class GifEncoder {
         
         // 写入图像描述符和图像数据
         writeImageDescriptor(image);
+        out.flush();
     }
 
     /**
@@ -0,0 +1,188 @@
+package io.github.purecaptcha.util;
+
+import java.awt.BasicStroke;
+import java.awt.Font;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 字形轮廓缓存
+ * <p>
+ * 按 (字体, 文本) 缓存 {@link Font#createGlyphVector} 生成的轮廓,轮廓以原点为基线起点,
+ * 绘制时通过坐标变换移动到目标位置,避免每个验证码重复进行字形布局。
+ * <p>
+ * 同时缓存轮廓的描边结果(圆角端点和连接的描边与旋转无关,可先描边再变换)。
+ * <p>
+ * 线程安全,返回的 {@link Shape} 是只读包装(不暴露内部的 {@code GeneralPath}),可在多个线程间共享。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class GlyphCache {
+
+    // 最大缓存条目数,超出后整体清空(常用字符集 + 少量字体远小于该值)
+    private static final int MAX_ENTRIES = 4096;
+
+    // 固定的字体渲染上下文(无变换,开启抗锯齿)
+    private static final FontRenderContext FRC = new FontRenderContext(null, true, false);
+
+    private static final ConcurrentMap<GlyphKey, Shape> OUTLINES = new ConcurrentHashMap<>();
+
+    /**
+     * 获取文本轮廓(基线起点位于原点)
+     *
+     * @param font 字体
+     * @param text 文本内容
+     * @return 文本轮廓
+     */
+    public static Shape getOutline(Font font, String text) {
+        GlyphKey key = new GlyphKey(font, text, null);
+        Shape outline = OUTLINES.get(key);
+        if (outline == null) {
+            outline = cache(key, font.createGlyphVector(FRC, text).getOutline(0, 0));
+        }
+        return outline;
+    }
+
+    /**
+     * 获取文本轮廓的描边形状(基线起点位于原点)
+     *
+     * @param font 字体
+     * @param text 文本内容
+     * @param stroke 笔触
+     * @return 描边后的填充形状
+     */
+    public static Shape getStrokedOutline(Font font, String text, BasicStroke stroke) {
+        GlyphKey key = new GlyphKey(font, text, stroke);
+        Shape stroked = OUTLINES.get(key);
+        if (stroked == null) {
+            stroked = cache(key, stroke.createStrokedShape(getOutline(font, text)));
+        }
+        return stroked;
+    }
+
+    private static Shape cache(GlyphKey key, Shape shape) {
+        if (OUTLINES.size() >= MAX_ENTRIES) {
+            OUTLINES.clear();
+        }
+        Shape readOnly = new ReadOnlyShape(shape);
+        Shape existing = OUTLINES.putIfAbsent(key, readOnly);
+        return existing != null ? existing : readOnly;
+    }
+
+    /**
+     * 获取当前缓存条目数
+     */
+    public static int size() {
+        return OUTLINES.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        OUTLINES.clear();
+    }
+
+    /**
+     * 只读形状:只转发查询方法,调用方无法通过强制转换修改缓存中的路径
+     */
+    private static final class ReadOnlyShape implements Shape {
+        private final Shape shape;
+
+        ReadOnlyShape(Shape shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return shape.getBounds();
+        }
+
+        @Override
+        public Rectangle2D getBounds2D() {
+            return shape.getBounds2D();
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return shape.contains(x, y);
+        }
+
+        @Override
+        public boolean contains(Point2D p) {
+            return shape.contains(p);
+        }
+
+        @Override
+        public boolean intersects(double x, double y, double w, double h) {
+            return shape.intersects(x, y, w, h);
+        }
+
+        @Override
+        public boolean intersects(Rectangle2D r) {
+            return shape.intersects(r);
+        }
+
+        @Override
+        public boolean contains(double x, double y, double w, double h) {
+            return shape.contains(x, y, w, h);
+        }
+
+        @Override
+        public boolean contains(Rectangle2D r) {
+            return shape.contains(r);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at) {
+            return shape.getPathIterator(at);
+        }
+
+        @Override
+        public PathIterator getPathIterator(AffineTransform at, double flatness) {
+            return shape.getPathIterator(at, flatness);
+        }
+    }
+
+    /**
+     * 字形缓存键(笔触为null表示原始轮廓)
+     */
+    private static class GlyphKey {
+        final Font font;
+        final String text;
+        final BasicStroke stroke;
+
+        GlyphKey(Font font, String text, BasicStroke stroke) {
+            this.font = font;
+            this.text = text;
+            this.stroke = stroke;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GlyphKey)) {
+                return false;
+            }
+            GlyphKey other = (GlyphKey) o;
+            return text.equals(other.text) && font.equals(other.font)
+                    && (stroke == null ? other.stroke == null : stroke.equals(other.stroke));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * font.hashCode() + text.hashCode();
+            return 31 * result + (stroke == null ? 0 : stroke.hashCode());
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.purecaptcha.util;
+
+import io.github.purecaptcha.config.RenderProfile;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * 预旋转字形精灵缓存
+ * <p>
+ * 将镂空文字的三次描边(外描边、主轮廓、内高光)按 (字体, 文本, 角度) 预先光栅化为覆盖率蒙版,
+ * 绘制时直接将蒙版按颜色混合到画布像素数组,代替每个字形的旋转变换和三次抗锯齿描边。
+ * <p>
+ * 颜色在混合时才应用,因此同一字形的所有颜色共享一个精灵,缓存大小只取决于字符集和角度范围。
+ * 角度按整数度量化,验证码使用的 -15° 到 15° 范围内最多31个桶。
+ * 描边次数和抗锯齿随渲染档位变化:抗锯齿开关是缓存键的一部分,描边次数在混合时按档位裁剪。
+ * <p>
+ * 线程安全,命中时不加锁;精灵数超过上限后整体清空。
+ * 画布必须是 {@link ImageUtil#createImage} 创建的 TYPE_INT_RGB 图像。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class GlyphSpriteCache {
+
+    // 默认最大精灵数量
+    private static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    // 与 ImageUtil.drawHollowText 一致的三次描边
+    private static final BasicStroke[] PASS_STROKES = {
+        new BasicStroke(3.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND),
+        new BasicStroke(2.2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND),
+        new BasicStroke(1.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND)
+    };
+
+    // 精灵四周留白(最粗描边半宽 + 抗锯齿边缘)
+    private static final int PADDING = 3;
+
+    private static volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    // 超出容量后整体清空(与 GlyphCache 相同),命中时不加锁
+    private static final ConcurrentMap<SpriteKey, Sprite> SPRITES = new ConcurrentHashMap<>();
+
+    /**
+     * 使用精灵绘制镂空文字
+     * <p>
+     * 效果与 {@link ImageUtil#drawHollowText} 相同,角度四舍五入到整数度
+     *
+     * @param canvas 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标(基线起点)
+     * @param y Y坐标(基线)
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     */
+    public static void drawHollowText(BufferedImage canvas, Font font, String text,
+                                      int x, int y, double angle, Color color) {
+        drawHollowText(canvas, font, text, x, y, angle, color, RenderProfile.QUALITY);
+    }
+
+    /**
+     * 按渲染档位使用精灵绘制镂空文字(描边次数和抗锯齿与档位一致)
+     *
+     * @param canvas 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标(基线起点)
+     * @param y Y坐标(基线)
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param profile 渲染档位
+     */
+    public static void drawHollowText(BufferedImage canvas, Font font, String text,
+                                      int x, int y, double angle, Color color, RenderProfile profile) {
+        int degrees = (int) Math.round(Math.toDegrees(angle));
+        Sprite sprite = getSprite(font, text, degrees, profile.isAntialiasing());
+
+        int[] pass = {
+            ColorUtil.darken(color, 0.1f).getRGB(),
+            color.getRGB(),
+            ColorUtil.brighten(color, 0.3f).getRGB()
+        };
+        // 外描边和内高光为不透明色,只有主轮廓保留原颜色的透明度
+        int[] passAlpha = {255, color.getAlpha(), 255};
+
+        // 1次:只有主轮廓;2次:外描边+主轮廓;3次:再加内高光
+        int passes = profile.getHollowPasses();
+        int firstPass = passes >= 2 ? 0 : 1;
+        int endPass = passes >= 3 ? 3 : 2;
+
+        blit(canvas, sprite, x - sprite.originX, y - sprite.originY, pass, passAlpha, firstPass, endPass);
+    }
+
+    /**
+     * 设置最大精灵数量
+     *
+     * @param entries 最大数量
+     */
+    public static void setMaxEntries(int entries) {
+        if (entries < 1) {
+            throw new IllegalArgumentException("entries必须大于0");
+        }
+        maxEntries = entries;
+    }
+
+    /**
+     * 获取当前缓存的精灵数量
+     */
+    public static int size() {
+        return SPRITES.size();
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        SPRITES.clear();
+    }
+
+    private static Sprite getSprite(Font font, String text, int degrees, boolean antialiasing) {
+        final SpriteKey key = new SpriteKey(font, text, degrees, antialiasing);
+        Sprite sprite = SPRITES.get(key);
+        if (sprite == null) {
+            if (SPRITES.size() >= maxEntries) {
+                SPRITES.clear();
+            }
+            // 同一精灵的并发未命中只光栅化一次,其余线程等待结果
+            sprite = SPRITES.computeIfAbsent(key, new Function<SpriteKey, Sprite>() {
+                @Override
+                public Sprite apply(SpriteKey k) {
+                    return rasterize(k.font, k.text, k.degrees, k.antialiasing);
+                }
+            });
+        }
+        return sprite;
+    }
+
+    /**
+     * 光栅化三次描边的覆盖率蒙版
+     */
+    private static Sprite rasterize(Font font, String text, int degrees, boolean antialiasing) {
+        Shape outline = GlyphCache.getOutline(font, text);
+        AffineTransform rotation = AffineTransform.getRotateInstance(Math.toRadians(degrees));
+        Rectangle2D bounds = rotation.createTransformedShape(outline).getBounds2D();
+
+        int originX = PADDING - (int) Math.floor(bounds.getMinX());
+        int originY = PADDING - (int) Math.floor(bounds.getMinY());
+        int width = (int) Math.ceil(bounds.getMaxX()) + originX + PADDING;
+        int height = (int) Math.ceil(bounds.getMaxY()) + originY + PADDING;
+
+        BufferedImage scratch = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] scratchPixels = ((DataBufferInt) scratch.getRaster().getDataBuffer()).getData();
+        byte[][] masks = new byte[PASS_STROKES.length][];
+
+        Graphics2D g2d = scratch.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing
+                ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.translate(originX, originY);
+        g2d.transform(rotation);
+        g2d.setColor(Color.WHITE);
+
+        for (int p = 0; p < PASS_STROKES.length; p++) {
+            Arrays.fill(scratchPixels, 0);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setStroke(PASS_STROKES[p]);
+            g2d.draw(outline);
+
+            byte[] mask = new byte[width * height];
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] = (byte) (scratchPixels[i] >>> 24);
+            }
+            masks[p] = mask;
+        }
+        g2d.dispose();
+
+        return new Sprite(width, height, originX, originY, masks);
+    }
+
+    /**
+     * 按顺序将 [firstPass, endPass) 范围内的描边混合到画布(SrcOver)
+     */
+    private static void blit(BufferedImage canvas, Sprite sprite, int left, int top,
+                             int[] passColors, int[] passAlpha, int firstPass, int endPass) {
+        int canvasWidth = canvas.getWidth();
+        int canvasHeight = canvas.getHeight();
+        int[] dst = RasterKernel.pixels(canvas);
+
+        int x0 = Math.max(0, -left);
+        int y0 = Math.max(0, -top);
+        int x1 = Math.min(sprite.width, canvasWidth - left);
+        int y1 = Math.min(sprite.height, canvasHeight - top);
+
+        for (int sy = y0; sy < y1; sy++) {
+            int srcRow = sy * sprite.width;
+            int dstRow = (top + sy) * canvasWidth + left;
+            for (int sx = x0; sx < x1; sx++) {
+                int m = srcRow + sx;
+                int rgb = dst[dstRow + sx];
+                for (int p = firstPass; p < endPass; p++) {
+                    int a = sprite.masks[p][m] & 0xff;
+                    if (a == 0) {
+                        continue;
+                    }
+                    if (passAlpha[p] != 255) {
+                        a = a * passAlpha[p] / 255;
+                    }
+                    rgb = RasterKernel.blend(rgb, passColors[p], a);
+                }
+                dst[dstRow + sx] = rgb;
+            }
+        }
+    }
+
+    /**
+     * 字形精灵:三次描边的覆盖率蒙版
+     */
+    private static class Sprite {
+        final int width;
+        final int height;
+        final int originX;
+        final int originY;
+        final byte[][] masks;
+
+        Sprite(int width, int height, int originX, int originY, byte[][] masks) {
+            this.width = width;
+            this.height = height;
+            this.originX = originX;
+            this.originY = originY;
+            this.masks = masks;
+        }
+    }
+
+    /**
+     * 精灵缓存键
+     */
+    private static class SpriteKey {
+        final Font font;
+        final String text;
+        final int degrees;
+        final boolean antialiasing;
+
+        SpriteKey(Font font, String text, int degrees, boolean antialiasing) {
+            this.font = font;
+            this.text = text;
+            this.degrees = degrees;
+            this.antialiasing = antialiasing;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SpriteKey)) {
+                return false;
+            }
+            SpriteKey other = (SpriteKey) o;
+            return degrees == other.degrees && antialiasing == other.antialiasing
+                    && text.equals(other.text) && font.equals(other.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((31 * font.hashCode() + text.hashCode()) * 31 + degrees) * 2 + (antialiasing ? 1 : 0);
+        }
+    }
+}
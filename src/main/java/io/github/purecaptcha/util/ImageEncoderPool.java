@@ -0,0 +1,196 @@
+package io.github.purecaptcha.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * ImageIO 编码器池
+ * <p>
+ * {@code ImageIO.write} 每次调用都会查找编码器、创建输出流,并且默认可能通过临时文件缓存输出。
+ * 本类为每个线程保留 JPEG 和 PNG 的 {@link ImageWriter} 及预设的 {@link ImageWriteParam}
+ * (JPEG 质量、关闭渐进式,PNG 压缩级别),输出始终经过内存缓存流,不会创建临时文件,
+ * 也不会修改全局的 {@link ImageIO#setUseCache(boolean)} 设置。
+ * <p>
+ * 主要用于以 JPEG 输出滑动验证码背景图;字符类验证码的 PNG 输出请使用更快的 {@link PngEncoder}。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class ImageEncoderPool {
+
+    /**
+     * 默认JPEG质量
+     */
+    public static final float DEFAULT_JPEG_QUALITY = 0.85f;
+
+    /**
+     * 默认PNG压缩质量(0为最高压缩,1为不压缩)
+     */
+    public static final float DEFAULT_PNG_QUALITY = 0.5f;
+
+    private static final ThreadLocal<Writers> WRITERS = new ThreadLocal<Writers>() {
+        @Override
+        protected Writers initialValue() {
+            return new Writers();
+        }
+    };
+
+    private ImageEncoderPool() {
+    }
+
+    /**
+     * 使用默认质量编码为JPEG
+     *
+     * @param image 图像(不能含透明通道)
+     * @return JPEG 数据
+     */
+    public static byte[] encodeJpeg(BufferedImage image) {
+        return encodeJpeg(image, DEFAULT_JPEG_QUALITY);
+    }
+
+    /**
+     * 使用指定质量编码为JPEG
+     *
+     * @param image 图像(不能含透明通道)
+     * @param quality JPEG质量(0-1)
+     * @return JPEG 数据
+     */
+    public static byte[] encodeJpeg(BufferedImage image, float quality) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 2);
+        try {
+            writeJpeg(image, out, quality);
+        } catch (IOException e) {
+            // ByteArrayOutputStream 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 将图像以JPEG写入输出流
+     *
+     * @param image 图像(不能含透明通道)
+     * @param out 输出流(不会被关闭)
+     * @param quality JPEG质量(0-1)
+     * @throws IOException 写入失败
+     */
+    public static void writeJpeg(BufferedImage image, OutputStream out, float quality) throws IOException {
+        if (image.getColorModel().hasAlpha()) {
+            throw new IllegalArgumentException("JPEG不支持透明通道");
+        }
+        if (quality < 0f || quality > 1f) {
+            throw new IllegalArgumentException("quality必须在0到1之间");
+        }
+        Writers writers = WRITERS.get();
+        ImageWriter writer = writers.jpegWriter();
+        writers.jpegParam.setCompressionQuality(quality);
+        write(writers, writer, writers.jpegParam, image, out);
+    }
+
+    /**
+     * 使用 ImageIO 的 PNG 编码器编码(预设压缩质量)
+     *
+     * @param image 图像
+     * @return PNG 数据
+     */
+    public static byte[] encodePng(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(image.getWidth() * image.getHeight());
+        try {
+            writePng(image, out);
+        } catch (IOException e) {
+            // ByteArrayOutputStream 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 使用 ImageIO 的 PNG 编码器写入输出流(预设压缩质量)
+     *
+     * @param image 图像
+     * @param out 输出流(不会被关闭)
+     * @throws IOException 写入失败
+     */
+    public static void writePng(BufferedImage image, OutputStream out) throws IOException {
+        Writers writers = WRITERS.get();
+        write(writers, writers.pngWriter(), writers.pngParam, image, out);
+    }
+
+    private static void write(Writers writers, ImageWriter writer, ImageWriteParam param,
+                              BufferedImage image, OutputStream out) throws IOException {
+        boolean ok = false;
+        // MemoryCacheImageOutputStream 关闭时不会关闭底层输出流
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+            ok = true;
+        } finally {
+            if (ok) {
+                writer.setOutput(null);
+            } else {
+                // 编码失败后编码器状态不确定,丢弃重建
+                writers.discard(writer);
+            }
+        }
+    }
+
+    private static ImageWriter lookup(String formatName) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            throw new IllegalStateException("找不到" + formatName + "编码器");
+        }
+        return writers.next();
+    }
+
+    /**
+     * 线程私有的编码器和预设参数
+     */
+    private static class Writers {
+        private ImageWriter jpegWriter;
+        private ImageWriter pngWriter;
+        ImageWriteParam jpegParam;
+        ImageWriteParam pngParam;
+
+        ImageWriter jpegWriter() {
+            if (jpegWriter == null) {
+                jpegWriter = lookup("jpeg");
+                jpegParam = jpegWriter.getDefaultWriteParam();
+                jpegParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                jpegParam.setCompressionQuality(DEFAULT_JPEG_QUALITY);
+                jpegParam.setProgressiveMode(ImageWriteParam.MODE_DISABLED);
+            }
+            return jpegWriter;
+        }
+
+        ImageWriter pngWriter() {
+            if (pngWriter == null) {
+                pngWriter = lookup("png");
+                pngParam = pngWriter.getDefaultWriteParam();
+                // Java 8 的 PNG 编码器不支持设置压缩级别
+                if (pngParam.canWriteCompressed()) {
+                    pngParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    pngParam.setCompressionQuality(DEFAULT_PNG_QUALITY);
+                }
+            }
+            return pngWriter;
+        }
+
+        void discard(ImageWriter writer) {
+            writer.dispose();
+            if (writer == jpegWriter) {
+                jpegWriter = null;
+            } else if (writer == pngWriter) {
+                pngWriter = null;
+            }
+        }
+    }
+}
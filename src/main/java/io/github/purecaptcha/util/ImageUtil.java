@@ -1,8 +1,14 @@
 package io.github.purecaptcha.util;
 
+import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.config.CaptchaProfile;
+import io.github.purecaptcha.config.RenderMode;
+import io.github.purecaptcha.config.RenderProfile;
+
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,6 +23,24 @@ import java.io.InputStream;
  */
 public class ImageUtil {
 
+    // 预创建的笔触(BasicStroke不可变,可在线程间共享)
+    private static final BasicStroke HOLLOW_OUTER_STROKE =
+            new BasicStroke(3.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke HOLLOW_MAIN_STROKE =
+            new BasicStroke(2.2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke HOLLOW_INNER_STROKE =
+            new BasicStroke(1.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke STYLED_OUTLINE_STROKE =
+            new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke SIMPLE_STYLED_OUTLINE_STROKE =
+            new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+    private static final BasicStroke CIRCLE_STROKE = new BasicStroke(2f);
+    private static final BasicStroke[] LINE_STROKES = {
+        new BasicStroke(1f), new BasicStroke(2f), new BasicStroke(3f)
+    };
+    private static final BasicStroke CURVE_STROKE =
+            new BasicStroke(1.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+
     /**
      * 创建BufferedImage并开启抗锯齿
      *
@@ -35,17 +59,27 @@ public class ImageUtil {
      * @return 配置好的Graphics2D对象
      */
     public static Graphics2D getGraphics(BufferedImage image) {
+        return getGraphics(image, RenderProfile.QUALITY);
+    }
+
+    /**
+     * 获取Graphics2D并按渲染档位配置渲染提示
+     *
+     * @param image BufferedImage对象
+     * @param profile 渲染档位
+     * @return 配置好的Graphics2D对象
+     */
+    public static Graphics2D getGraphics(BufferedImage image, RenderProfile profile) {
         Graphics2D g2d = image.createGraphics();
 
-        // 开启抗锯齿
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                            RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
-                            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        // 抗锯齿
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, profile.isAntialiasing()
+                            ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, profile.isAntialiasing()
+                            ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
 
-        // 高质量渲染
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING,
-                            RenderingHints.VALUE_RENDER_QUALITY);
+        // 渲染质量
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, profile.getRenderingHint());
 
         return g2d;
     }
@@ -72,14 +106,28 @@ public class ImageUtil {
      * @param count 干扰线数量
      */
     public static void drawInterferenceLines(Graphics2D g2d, int width, int height, int count) {
+        drawInterferenceLines(g2d, width, height, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制干扰线
+     *
+     * @param g2d Graphics2D对象
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param count 干扰线数量
+     * @param random 随机数来源
+     */
+    public static void drawInterferenceLines(Graphics2D g2d, int width, int height, int count,
+                                             RandomSource random) {
         for (int i = 0; i < count; i++) {
-            g2d.setColor(ColorUtil.randomColor());
-            g2d.setStroke(new BasicStroke(RandomUtil.randomInt(1, 3)));
+            g2d.setColor(ColorUtil.randomColor(50, 200, random));
+            g2d.setStroke(LINE_STROKES[random.nextInt(LINE_STROKES.length)]);
 
-            int x1 = RandomUtil.randomInt(width);
-            int y1 = RandomUtil.randomInt(height);
-            int x2 = RandomUtil.randomInt(width);
-            int y2 = RandomUtil.randomInt(height);
+            int x1 = random.nextInt(width);
+            int y1 = random.nextInt(height);
+            int x2 = random.nextInt(width);
+            int y2 = random.nextInt(height);
 
             g2d.drawLine(x1, y1, x2, y2);
         }
@@ -94,10 +142,24 @@ public class ImageUtil {
      * @param count 噪点数量
      */
     public static void drawNoisePoints(Graphics2D g2d, int width, int height, int count) {
+        drawNoisePoints(g2d, width, height, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制噪点
+     *
+     * @param g2d Graphics2D对象
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param count 噪点数量
+     * @param random 随机数来源
+     */
+    public static void drawNoisePoints(Graphics2D g2d, int width, int height, int count,
+                                       RandomSource random) {
         for (int i = 0; i < count; i++) {
-            g2d.setColor(ColorUtil.randomColor());
-            int x = RandomUtil.randomInt(width);
-            int y = RandomUtil.randomInt(height);
+            g2d.setColor(ColorUtil.randomColor(50, 200, random));
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
             g2d.fillRect(x, y, 1, 1);
         }
     }
@@ -142,11 +204,9 @@ public class ImageUtil {
         // 旋转到指定角度
         g2d.rotate(angle, x, y);
         
-        // 获取字体轮廓
-        Font font = g2d.getFont();
-        java.awt.font.FontRenderContext frc = g2d.getFontRenderContext();
-        java.awt.font.GlyphVector gv = font.createGlyphVector(frc, text);
-        java.awt.Shape shape = gv.getOutline(x, y);
+        // 获取缓存的字体轮廓(基线起点在原点,平移到(x, y))
+        g2d.translate(x, y);
+        java.awt.Shape shape = GlyphCache.getOutline(g2d.getFont(), text);
         
         // 1. 绘制阴影（偏移3像素）
         g2d.translate(3, 3);
@@ -156,7 +216,7 @@ public class ImageUtil {
         
         // 2. 绘制描边
         g2d.setColor(outlineColor);
-        g2d.setStroke(new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g2d.setStroke(STYLED_OUTLINE_STROKE);
         g2d.draw(shape);
         
         // 3. 绘制填充（使用更亮的颜色）
@@ -176,14 +236,28 @@ public class ImageUtil {
      * @param count 圆圈数量
      */
     public static void drawDecorativeCircles(Graphics2D g2d, int width, int height, int count) {
+        drawDecorativeCircles(g2d, width, height, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制装饰性圆圈背景
+     *
+     * @param g2d Graphics2D对象
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param count 圆圈数量
+     * @param random 随机数来源
+     */
+    public static void drawDecorativeCircles(Graphics2D g2d, int width, int height, int count,
+                                             RandomSource random) {
         for (int i = 0; i < count; i++) {
             // 随机位置和大小
-            int x = RandomUtil.randomInt(width);
-            int y = RandomUtil.randomInt(height);
-            int size = RandomUtil.randomInt(10, 30);
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            int size = random.nextInt(10, 30);
             
             // 随机颜色（半透明）
-            Color color = ColorUtil.randomVibrantColor();
+            Color color = ColorUtil.randomVibrantColor(random);
             g2d.setColor(ColorUtil.withAlpha(color, 25));
             
             // 绘制实心圆
@@ -191,7 +265,7 @@ public class ImageUtil {
             
             // 绘制圆环
             g2d.setColor(ColorUtil.withAlpha(color, 50));
-            g2d.setStroke(new BasicStroke(2f));
+            g2d.setStroke(CIRCLE_STROKE);
             g2d.drawOval(x - size / 2, y - size / 2, size, size);
         }
     }
@@ -205,9 +279,23 @@ public class ImageUtil {
      * @param count 干扰线数量
      */
     public static void drawModernInterferenceLines(Graphics2D g2d, int width, int height, int count) {
+        drawModernInterferenceLines(g2d, width, height, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制现代化干扰线
+     *
+     * @param g2d Graphics2D对象
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param count 干扰线数量
+     * @param random 随机数来源
+     */
+    public static void drawModernInterferenceLines(Graphics2D g2d, int width, int height, int count,
+                                                   RandomSource random) {
         for (int i = 0; i < count; i++) {
             // 随机决定是横向还是纵向线条
-            boolean isHorizontal = RandomUtil.randomInt(100) < 60; // 60%概率横向
+            boolean isHorizontal = random.nextInt(100) < 60; // 60%概率横向
             
             int x1, y1, x2, y2, ctrlX, ctrlY;
             
@@ -215,24 +303,24 @@ public class ImageUtil {
                 // 横向线条（横穿字体区域）
                 x1 = 0;
                 x2 = width;
-                y1 = RandomUtil.randomInt(height / 4, height * 3 / 4); // 在中间区域
-                y2 = y1 + RandomUtil.randomInt(-10, 10);
-                ctrlX = width / 2 + RandomUtil.randomInt(-30, 30);
-                ctrlY = (y1 + y2) / 2 + RandomUtil.randomInt(-15, 15);
+                y1 = random.nextInt(height / 4, height * 3 / 4); // 在中间区域
+                y2 = y1 + random.nextInt(-10, 10);
+                ctrlX = width / 2 + random.nextInt(-30, 30);
+                ctrlY = (y1 + y2) / 2 + random.nextInt(-15, 15);
             } else {
                 // 随机线条
-                x1 = RandomUtil.randomInt(width);
-                y1 = RandomUtil.randomInt(height);
-                x2 = RandomUtil.randomInt(width);
-                y2 = RandomUtil.randomInt(height);
-                ctrlX = RandomUtil.randomInt(width);
-                ctrlY = RandomUtil.randomInt(height);
+                x1 = random.nextInt(width);
+                y1 = random.nextInt(height);
+                x2 = random.nextInt(width);
+                y2 = random.nextInt(height);
+                ctrlX = random.nextInt(width);
+                ctrlY = random.nextInt(height);
             }
             
             // 半透明的鲜艳颜色
-            Color color = ColorUtil.randomVibrantColor();
+            Color color = ColorUtil.randomVibrantColor(random);
             g2d.setColor(ColorUtil.withAlpha(color, 35));
-            g2d.setStroke(new BasicStroke(1.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2d.setStroke(CURVE_STROKE);
             
             // 绘制二次贝塞尔曲线
             java.awt.geom.QuadCurve2D curve = new java.awt.geom.QuadCurve2D.Float(
@@ -253,37 +341,256 @@ public class ImageUtil {
      * @param color 轮廓颜色
      */
     public static void drawHollowText(Graphics2D g2d, String text, int x, int y, double angle, Color color) {
+        drawHollowText(g2d, text, x, y, angle, color, 3);
+    }
+
+    /**
+     * 按指定描边次数绘制镂空文字
+     *
+     * @param g2d Graphics2D对象
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param passes 描边次数(1:主轮廓;2:增加外部描边;3:再增加内部高光)
+     */
+    public static void drawHollowText(Graphics2D g2d, String text, int x, int y, double angle,
+                                      Color color, int passes) {
         // 保存原始变换
         java.awt.geom.AffineTransform oldTransform = g2d.getTransform();
         
         // 旋转到指定角度
         g2d.rotate(angle, x, y);
         
-        // 获取字体轮廓
-        Font font = g2d.getFont();
-        java.awt.font.FontRenderContext frc = g2d.getFontRenderContext();
-        java.awt.font.GlyphVector gv = font.createGlyphVector(frc, text);
-        java.awt.Shape shape = gv.getOutline(x, y);
+        // 获取缓存的字体轮廓(基线起点在原点,平移到(x, y))
+        g2d.translate(x, y);
+        java.awt.Shape shape = GlyphCache.getOutline(g2d.getFont(), text);
         
         // 1. 绘制轻微的外部描边（增强可见性）
-        g2d.setColor(ColorUtil.darken(color, 0.1f));
-        g2d.setStroke(new BasicStroke(3.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        g2d.draw(shape);
+        if (passes >= 2) {
+            g2d.setColor(ColorUtil.darken(color, 0.1f));
+            g2d.setStroke(HOLLOW_OUTER_STROKE);
+            g2d.draw(shape);
+        }
         
         // 2. 绘制主要的镂空轮廓（稍细）
         g2d.setColor(color);
-        g2d.setStroke(new BasicStroke(2.2f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g2d.setStroke(HOLLOW_MAIN_STROKE);
         g2d.draw(shape);
         
         // 3. 绘制内部高光（增加镂空感）
-        g2d.setColor(ColorUtil.brighten(color, 0.3f));
-        g2d.setStroke(new BasicStroke(1.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-        g2d.draw(shape);
+        if (passes >= 3) {
+            g2d.setColor(ColorUtil.brighten(color, 0.3f));
+            g2d.setStroke(HOLLOW_INNER_STROKE);
+            g2d.draw(shape);
+        }
         
         // 恢复变换
         g2d.setTransform(oldTransform);
     }
 
+    /**
+     * 使用预旋转字形精灵绘制镂空文字
+     * <p>
+     * 效果与 {@link #drawHollowText} 相同,直接写入画布像素,角度四舍五入到整数度
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     */
+    public static void drawHollowTextSprite(BufferedImage image, Font font, String text,
+                                            int x, int y, double angle, Color color) {
+        GlyphSpriteCache.drawHollowText(image, font, text, x, y, angle, color);
+    }
+
+    /**
+     * 按渲染档位使用预旋转字形精灵绘制镂空文字(描边次数和抗锯齿与档位一致)
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param profile 渲染档位
+     */
+    public static void drawHollowTextSprite(BufferedImage image, Font font, String text,
+                                            int x, int y, double angle, Color color, RenderProfile profile) {
+        GlyphSpriteCache.drawHollowText(image, font, text, x, y, angle, color, profile);
+    }
+
+    /**
+     * 使用扫描线光栅化器绘制镂空文字
+     * <p>
+     * 效果与 {@link #drawHollowText} 相同,不经过 Graphics2D,直接写入画布像素
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     */
+    public static void drawHollowTextRaster(BufferedImage image, Font font, String text,
+                                            int x, int y, double angle, Color color) {
+        drawHollowTextRaster(image, font, text, x, y, angle, color, 3);
+    }
+
+    /**
+     * 使用扫描线光栅化器按指定描边次数绘制镂空文字
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param passes 描边次数(1:主轮廓;2:增加外部描边;3:再增加内部高光)
+     */
+    public static void drawHollowTextRaster(BufferedImage image, Font font, String text,
+                                            int x, int y, double angle, Color color, int passes) {
+        drawHollowTextRaster(image, font, text, x, y, angle, color, passes, true);
+    }
+
+    /**
+     * 使用扫描线光栅化器按渲染档位绘制镂空文字
+     * <p>
+     * 描边次数和抗锯齿开关取自渲染档位,
+     * 与 {@link #getGraphics(BufferedImage, RenderProfile)} 的 Java2D 绘制保持一致
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param profile 渲染档位
+     */
+    public static void drawHollowTextRaster(BufferedImage image, Font font, String text,
+                                            int x, int y, double angle, Color color, RenderProfile profile) {
+        drawHollowTextRaster(image, font, text, x, y, angle, color,
+                             profile.getHollowPasses(), profile.isAntialiasing());
+    }
+
+    private static void drawHollowTextRaster(BufferedImage image, Font font, String text, int x, int y,
+                                             double angle, Color color, int passes, boolean antialiasing) {
+        int[] pixels = RasterKernel.pixels(image);
+        int width = image.getWidth();
+        int height = image.getHeight();
+        java.awt.geom.AffineTransform transform = java.awt.geom.AffineTransform.getTranslateInstance(x, y);
+        transform.rotate(angle);
+
+        // 外部描边、主要轮廓、内部高光
+        if (passes >= 2) {
+            fillRaster(pixels, width, height, GlyphCache.getStrokedOutline(font, text, HOLLOW_OUTER_STROKE),
+                       transform, ColorUtil.darken(color, 0.1f), antialiasing);
+        }
+        fillRaster(pixels, width, height, GlyphCache.getStrokedOutline(font, text, HOLLOW_MAIN_STROKE),
+                   transform, color, antialiasing);
+        if (passes >= 3) {
+            fillRaster(pixels, width, height, GlyphCache.getStrokedOutline(font, text, HOLLOW_INNER_STROKE),
+                       transform, ColorUtil.brighten(color, 0.3f), antialiasing);
+        }
+    }
+
+    /**
+     * 按配置绘制验证码背景层(背景色、装饰性圆圈和干扰线)
+     * <p>
+     * 开启背景图块时复制预渲染的图块;{@link RenderMode#DIRECT_RASTER} 模式下干扰线直接写入画布像素
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param g2d 画布的Graphics2D对象
+     * @param config 配置
+     * @param profile 编译结果
+     */
+    public static void drawCaptchaBackground(BufferedImage image, Graphics2D g2d,
+                                             CaptchaConfig config, CaptchaProfile profile) {
+        if (config.isBackgroundTiles()) {
+            // 预渲染的背景图块已包含背景、装饰性圆圈和干扰线
+            BackgroundTilePool.copyTile(image, config.getBackgroundColor(),
+                                        profile.getDecorativeCircleCount(),
+                                        config.getInterferenceLineCount(),
+                                        config.getRenderProfile(), config.getDecorationRandom());
+            return;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        drawBackground(g2d, width, height, config.getBackgroundColor());
+        drawDecorativeCircles(g2d, width, height, profile.getDecorativeCircleCount(),
+                              config.getDecorationRandom());
+        if (config.getRenderMode() == RenderMode.DIRECT_RASTER) {
+            RasterKernel.drawModernInterferenceLines(image, config.getInterferenceLineCount(),
+                                                     config.getDecorationRandom());
+        } else {
+            drawModernInterferenceLines(g2d, width, height, config.getInterferenceLineCount(),
+                                        config.getDecorationRandom());
+        }
+    }
+
+    /**
+     * 按配置绘制验证码噪点
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param g2d 画布的Graphics2D对象
+     * @param config 配置
+     * @param profile 编译结果
+     */
+    public static void drawCaptchaNoise(BufferedImage image, Graphics2D g2d,
+                                        CaptchaConfig config, CaptchaProfile profile) {
+        if (config.getRenderMode() == RenderMode.DIRECT_RASTER) {
+            RasterKernel.drawNoisePoints(image, profile.getNoisePointCount(), config.getDecorationRandom());
+        } else {
+            drawNoisePoints(g2d, image.getWidth(), image.getHeight(), profile.getNoisePointCount(),
+                            config.getDecorationRandom());
+        }
+    }
+
+    /**
+     * 按配置绘制镂空文字
+     * <p>
+     * 开启字形精灵时使用预旋转精灵,{@link RenderMode#DIRECT_RASTER} 模式下使用扫描线光栅化器,
+     * 否则通过 Graphics2D 描边;描边次数和抗锯齿均取自渲染档位
+     *
+     * @param image 画布(TYPE_INT_RGB)
+     * @param g2d 画布的Graphics2D对象
+     * @param font 字体
+     * @param text 文字内容
+     * @param x X坐标
+     * @param y Y坐标
+     * @param angle 旋转角度(弧度)
+     * @param color 轮廓颜色
+     * @param config 配置
+     * @param profile 编译结果
+     */
+    public static void drawCaptchaHollowText(BufferedImage image, Graphics2D g2d, Font font, String text,
+                                             int x, int y, double angle, Color color,
+                                             CaptchaConfig config, CaptchaProfile profile) {
+        if (config.isGlyphSprites()) {
+            drawHollowTextSprite(image, font, text, x, y, angle, color, config.getRenderProfile());
+        } else if (config.getRenderMode() == RenderMode.DIRECT_RASTER) {
+            drawHollowTextRaster(image, font, text, x, y, angle, color, config.getRenderProfile());
+        } else {
+            g2d.setFont(font);
+            drawHollowText(g2d, text, x, y, angle, color, profile.getHollowPasses());
+        }
+    }
+
+    private static void fillRaster(int[] pixels, int width, int height, Shape shape,
+                                   java.awt.geom.AffineTransform transform, Color color, boolean antialiasing) {
+        ScanlineRasterizer.fill(pixels, width, height, shape, transform, color.getRGB(), color.getAlpha(),
+                                antialiasing);
+    }
+
     /**
      * 绘制简化版风格化文字（用于中文，描边更细）
      *
@@ -303,11 +610,9 @@ public class ImageUtil {
         // 旋转到指定角度
         g2d.rotate(angle, x, y);
         
-        // 获取字体轮廓
-        Font font = g2d.getFont();
-        java.awt.font.FontRenderContext frc = g2d.getFontRenderContext();
-        java.awt.font.GlyphVector gv = font.createGlyphVector(frc, text);
-        java.awt.Shape shape = gv.getOutline(x, y);
+        // 获取缓存的字体轮廓(基线起点在原点,平移到(x, y))
+        g2d.translate(x, y);
+        java.awt.Shape shape = GlyphCache.getOutline(g2d.getFont(), text);
         
         // 1. 绘制轻微阴影（偏移2像素）
         g2d.translate(2, 2);
@@ -317,7 +622,7 @@ public class ImageUtil {
         
         // 2. 绘制描边（更细的描边）
         g2d.setColor(outlineColor);
-        g2d.setStroke(new BasicStroke(2.0f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g2d.setStroke(SIMPLE_STYLED_OUTLINE_STROKE);
         g2d.draw(shape);
         
         // 3. 绘制填充
@@ -383,18 +688,30 @@ public class ImageUtil {
      * @return 缩放后的图片
      */
     public static BufferedImage scaleImage(BufferedImage source, int targetWidth, int targetHeight) {
+        return scaleImage(source, targetWidth, targetHeight, RenderProfile.QUALITY);
+    }
+
+    /**
+     * 按渲染档位缩放图片到指定尺寸
+     *
+     * @param source 原始图片
+     * @param targetWidth 目标宽度
+     * @param targetHeight 目标高度
+     * @param profile 渲染档位(决定插值方式)
+     * @return 缩放后的图片
+     */
+    public static BufferedImage scaleImage(BufferedImage source, int targetWidth, int targetHeight,
+                                           RenderProfile profile) {
         if (source == null) {
             return null;
         }
         
         // 创建目标图片
         BufferedImage scaledImage = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2d = scaledImage.createGraphics();
+        Graphics2D g2d = getGraphics(scaledImage, profile);
         
-        // 设置高质量渲染
-        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        // 设置插值方式
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, profile.getInterpolationHint());
         
         // 绘制缩放后的图片
         g2d.drawImage(source, 0, 0, targetWidth, targetHeight, null);
@@ -403,6 +720,65 @@ public class ImageUtil {
         return scaledImage;
     }
 
+    /**
+     * 复制图片
+     * <p>
+     * TYPE_INT_RGB / TYPE_INT_ARGB 图片直接复制底层像素数组,其他类型(或子图)回退到Graphics2D绘制
+     *
+     * @param source 原始图片
+     * @return 图片副本
+     */
+    public static BufferedImage copyImage(BufferedImage source) {
+        if (source == null) {
+            return null;
+        }
+
+        int type = source.getType();
+        boolean wholeRaster = source.getRaster().getParent() == null;
+        if (wholeRaster && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)) {
+            BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), type);
+            int[] src = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+            int[] dst = ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+            System.arraycopy(src, 0, dst, 0, dst.length);
+            return copy;
+        }
+
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(),
+                type == BufferedImage.TYPE_CUSTOM ? BufferedImage.TYPE_INT_ARGB : type);
+        Graphics2D g2d = copy.createGraphics();
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+        return copy;
+    }
+
+    /**
+     * 复制图片到已有的目标图像
+     * <p>
+     * 尺寸和类型相同的完整 TYPE_INT_RGB / TYPE_INT_ARGB 图像直接复制像素数组,否则使用Graphics2D覆盖绘制
+     *
+     * @param source 原始图片
+     * @param target 目标图像
+     * @return 目标图像
+     */
+    public static BufferedImage copyImage(BufferedImage source, BufferedImage target) {
+        int type = source.getType();
+        boolean sameLayout = type == target.getType()
+                && source.getWidth() == target.getWidth() && source.getHeight() == target.getHeight()
+                && source.getRaster().getParent() == null && target.getRaster().getParent() == null;
+        if (sameLayout && (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)) {
+            int[] src = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+            int[] dst = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+            System.arraycopy(src, 0, dst, 0, dst.length);
+            return target;
+        }
+
+        Graphics2D g2d = target.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+        return target;
+    }
+
     /**
      * 按比例缩放图片（保持宽高比）
      *
@@ -0,0 +1,529 @@
+package io.github.purecaptcha.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * PNG 编码器
+ * <p>
+ * 针对验证码图像的零依赖 PNG 编码器:直接读取 TYPE_INT_RGB / TYPE_INT_ARGB 图像的
+ * {@link DataBufferInt} 像素数组,按行滤波后整体压缩为一个 IDAT 块。
+ * 与 {@code ImageIO.write(image, "PNG", ...)} 相比,省去了插件查找、通用光栅转换和流包装,
+ * 压缩级别和滤波方式也可以按需调整。
+ * <p>
+ * {@link Deflater}、{@link CRC32} 和行缓冲区按线程复用,编码过程中不再分配临时对象。
+ * 其他类型的图像会先转换为 ARGB 像素再编码。
+ * <p>
+ * 字符验证码还可以通过 {@link #encodeIndexed} 输出 PNG-8 索引色图像(见 {@link CaptchaPalette}),
+ * 体积约为真彩色的一半以下。
+ * <p>
+ * 线程安全。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class PngEncoder {
+
+    /**
+     * 默认压缩级别(与 ImageIO 输出大小相同,更高级别体积只减少约1%而耗时增加30%以上)
+     */
+    public static final int DEFAULT_LEVEL = 4;
+
+    /**
+     * 默认滤波方式
+     * <p>
+     * 验证码由纯色背景、少量颜色的线条和噪点组成,不滤波时重复字节最多,压缩后反而最小
+     */
+    public static final Filter DEFAULT_FILTER = Filter.NONE;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    private static final int COLOR_TYPE_RGB = 2;
+    private static final int COLOR_TYPE_INDEXED = 3;
+    private static final int COLOR_TYPE_RGBA = 6;
+
+    // 每个线程的编码上下文
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<Context>() {
+        @Override
+        protected Context initialValue() {
+            return new Context();
+        }
+    };
+
+    /**
+     * PNG 行滤波方式
+     */
+    public enum Filter {
+
+        /**
+         * 不滤波,编码最快,验证码图像的压缩结果通常也最小
+         */
+        NONE("不滤波", 0),
+
+        /**
+         * 与左侧像素求差,适合水平方向渐变和纯色背景
+         */
+        SUB("左差分", 1),
+
+        /**
+         * 与上一行像素求差
+         */
+        UP("上差分", 2),
+
+        /**
+         * 与左侧和上一行像素平均值求差
+         */
+        AVERAGE("平均差分", 3),
+
+        /**
+         * Paeth 预测,适合照片类的背景图片
+         */
+        PAETH("Paeth预测", 4),
+
+        /**
+         * 逐行尝试全部滤波方式,选择绝对值和最小的一种(libpng 默认策略,最慢)
+         */
+        ADAPTIVE("逐行自适应", -1);
+
+        private final String description;
+        private final int type;
+
+        Filter(String description, int type) {
+            this.description = description;
+            this.type = type;
+        }
+
+        /**
+         * 获取滤波方式描述
+         *
+         * @return 描述
+         */
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 使用默认参数编码为 PNG
+     *
+     * @param image 图像
+     * @return PNG 数据
+     */
+    public static byte[] encode(BufferedImage image) {
+        return encode(image, DEFAULT_LEVEL, DEFAULT_FILTER);
+    }
+
+    /**
+     * 使用指定参数编码为 PNG
+     *
+     * @param image 图像
+     * @param level 压缩级别(0-9)
+     * @param filter 滤波方式
+     * @return PNG 数据
+     */
+    public static byte[] encode(BufferedImage image, int level, Filter filter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(image));
+        try {
+            write(image, out, level, filter);
+        } catch (IOException e) {
+            // ByteArrayOutputStream 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 使用默认参数将 PNG 写入输出流
+     *
+     * @param image 图像
+     * @param out 输出流(不会被关闭)
+     * @throws IOException 写入失败
+     */
+    public static void write(BufferedImage image, OutputStream out) throws IOException {
+        write(image, out, DEFAULT_LEVEL, DEFAULT_FILTER);
+    }
+
+    /**
+     * 使用指定参数将 PNG 写入输出流
+     *
+     * @param image 图像
+     * @param out 输出流(不会被关闭)
+     * @param level 压缩级别(0-9)
+     * @param filter 滤波方式
+     * @throws IOException 写入失败
+     */
+    public static void write(BufferedImage image, OutputStream out, int level, Filter filter)
+            throws IOException {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level必须在0到9之间");
+        }
+        if (filter == null) {
+            filter = DEFAULT_FILTER;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean alpha = image.getColorModel().hasAlpha();
+        int bpp = alpha ? 4 : 3;
+        Context ctx = CONTEXT.get();
+
+        // 1. 逐行转换为字节并滤波
+        int rowBytes = width * bpp;
+        byte[] filtered = ctx.filtered(height * (rowBytes + 1));
+        byte[] prev = ctx.prevRow(rowBytes);
+        byte[] cur = ctx.curRow(rowBytes);
+        Arrays.fill(prev, 0, rowBytes, (byte) 0);
+
+        int[] pixels = directPixels(image);
+        int[] rowPixels = pixels == null ? ctx.rowPixels(width) : null;
+        for (int y = 0; y < height; y++) {
+            int offset;
+            if (pixels != null) {
+                offset = y * width;
+            } else {
+                image.getRGB(0, y, width, 1, rowPixels, 0, width);
+                offset = 0;
+            }
+            unpackRow(pixels != null ? pixels : rowPixels, offset, width, alpha, cur);
+            filterRow(filter, cur, prev, rowBytes, bpp, filtered, y * (rowBytes + 1), ctx);
+
+            byte[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+
+        // 2. 压缩
+        int compressedLength = deflate(ctx, filtered, height * (rowBytes + 1), level);
+
+        // 3. 写出 PNG 块
+        byte[] header = header(ctx, width, height, alpha ? COLOR_TYPE_RGBA : COLOR_TYPE_RGB);
+        out.write(SIGNATURE);
+        writeChunk(out, ctx, 'I', 'H', 'D', 'R', header, 13);
+        writeChunk(out, ctx, 'I', 'D', 'A', 'T', ctx.compressed, compressedLength);
+        writeChunk(out, ctx, 'I', 'E', 'N', 'D', header, 0);
+    }
+
+    /**
+     * 使用默认参数编码为 PNG-8 索引色图像
+     *
+     * @param image 图像
+     * @return PNG 数据
+     * @see #writeIndexed(BufferedImage, OutputStream, int, int)
+     */
+    public static byte[] encodeIndexed(BufferedImage image) {
+        return encodeIndexed(image, CaptchaPalette.MAX_COLORS, DEFAULT_LEVEL);
+    }
+
+    /**
+     * 使用指定参数编码为 PNG-8 索引色图像
+     *
+     * @param image 图像
+     * @param maxColors 调色板最大颜色数(2-256)
+     * @param level 压缩级别(0-9)
+     * @return PNG 数据
+     * @see #writeIndexed(BufferedImage, OutputStream, int, int)
+     */
+    public static byte[] encodeIndexed(BufferedImage image, int maxColors, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(image) / 3);
+        try {
+            writeIndexed(image, out, maxColors, level);
+        } catch (IOException e) {
+            // ByteArrayOutputStream 不会抛出 IOException
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 将 PNG-8 索引色图像写入输出流
+     * <p>
+     * 颜色数超过调色板容量时为有损量化,适用于字符、算术和中文验证码。
+     * 含透明通道的图像(如滑动拼图块)仍按真彩色输出。
+     *
+     * @param image 图像
+     * @param out 输出流(不会被关闭)
+     * @param maxColors 调色板最大颜色数(2-256)
+     * @param level 压缩级别(0-9)
+     * @throws IOException 写入失败
+     */
+    public static void writeIndexed(BufferedImage image, OutputStream out, int maxColors, int level)
+            throws IOException {
+        if (image.getColorModel().hasAlpha()) {
+            write(image, out, level, DEFAULT_FILTER);
+            return;
+        }
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("level必须在0到9之间");
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Context ctx = CONTEXT.get();
+
+        int[] pixels = directPixels(image);
+        if (pixels == null) {
+            pixels = image.getRGB(0, 0, width, height, ctx.rowPixels(width * height), 0, width);
+        }
+
+        // 1. 构建调色板并映射为索引行(索引色不滤波)
+        CaptchaPalette palette = CaptchaPalette.build(pixels, 0, width * height, maxColors);
+        int rowBytes = width + 1;
+        byte[] filtered = ctx.filtered(height * rowBytes);
+        for (int y = 0; y < height; y++) {
+            filtered[y * rowBytes] = 0;
+            palette.map(pixels, y * width, width, filtered, y * rowBytes + 1);
+        }
+
+        // 2. 压缩
+        int compressedLength = deflate(ctx, filtered, height * rowBytes, level);
+
+        // 3. 写出 PNG 块
+        byte[] plte = ctx.palette;
+        for (int i = 0; i < palette.size(); i++) {
+            int rgb = palette.getColor(i);
+            plte[i * 3] = (byte) (rgb >> 16);
+            plte[i * 3 + 1] = (byte) (rgb >> 8);
+            plte[i * 3 + 2] = (byte) rgb;
+        }
+
+        out.write(SIGNATURE);
+        writeChunk(out, ctx, 'I', 'H', 'D', 'R', header(ctx, width, height, COLOR_TYPE_INDEXED), 13);
+        writeChunk(out, ctx, 'P', 'L', 'T', 'E', plte, palette.size() * 3);
+        writeChunk(out, ctx, 'I', 'D', 'A', 'T', ctx.compressed, compressedLength);
+        writeChunk(out, ctx, 'I', 'E', 'N', 'D', ctx.header, 0);
+    }
+
+    /**
+     * 压缩滤波后的数据到 ctx.compressed
+     *
+     * @return 压缩后的长度
+     */
+    private static int deflate(Context ctx, byte[] data, int length, int level) {
+        Deflater deflater = ctx.deflater;
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        byte[] compressed = ctx.compressed;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                ctx.compressed = compressed;
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength,
+                                                 compressed.length - compressedLength);
+        }
+        return compressedLength;
+    }
+
+    /**
+     * 填充 IHDR 数据(8位深度,不隔行)
+     */
+    private static byte[] header(Context ctx, int width, int height, int colorType) {
+        byte[] header = ctx.header;
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8;                                           // 位深度
+        header[9] = (byte) colorType;
+        header[10] = 0;                                          // 压缩方法
+        header[11] = 0;                                          // 滤波方法
+        header[12] = 0;                                          // 不隔行
+        return header;
+    }
+
+    /**
+     * 获取可直接读取的像素数组,不支持时返回null
+     */
+    private static int[] directPixels(BufferedImage image) {
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB) {
+            return null;
+        }
+        if (image.getRaster().getParent() != null
+                || !(image.getSampleModel() instanceof SinglePixelPackedSampleModel)
+                || ((SinglePixelPackedSampleModel) image.getSampleModel()).getScanlineStride()
+                        != image.getWidth()) {
+            return null;
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    private static void unpackRow(int[] pixels, int offset, int width, boolean alpha, byte[] row) {
+        int i = 0;
+        for (int x = 0; x < width; x++) {
+            int argb = pixels[offset + x];
+            row[i++] = (byte) (argb >> 16);
+            row[i++] = (byte) (argb >> 8);
+            row[i++] = (byte) argb;
+            if (alpha) {
+                row[i++] = (byte) (argb >>> 24);
+            }
+        }
+    }
+
+    /**
+     * 对一行应用滤波,结果(含滤波类型字节)写入 out[pos]
+     */
+    private static void filterRow(Filter filter, byte[] cur, byte[] prev, int rowBytes, int bpp,
+                                  byte[] out, int pos, Context ctx) {
+        if (filter != Filter.ADAPTIVE) {
+            out[pos] = (byte) filter.type;
+            applyFilter(filter.type, cur, prev, rowBytes, bpp, out, pos + 1);
+            return;
+        }
+
+        // 逐一尝试5种滤波,保留绝对值和最小的结果
+        byte[] candidate = ctx.candidate(rowBytes);
+        long best = Long.MAX_VALUE;
+        for (int type = 0; type <= 4; type++) {
+            applyFilter(type, cur, prev, rowBytes, bpp, candidate, 0);
+            long sum = 0;
+            for (int i = 0; i < rowBytes; i++) {
+                sum += Math.abs(candidate[i]);
+            }
+            if (sum < best) {
+                best = sum;
+                out[pos] = (byte) type;
+                System.arraycopy(candidate, 0, out, pos + 1, rowBytes);
+            }
+        }
+    }
+
+    private static void applyFilter(int type, byte[] cur, byte[] prev, int rowBytes, int bpp,
+                                    byte[] out, int pos) {
+        switch (type) {
+            case 0:
+                System.arraycopy(cur, 0, out, pos, rowBytes);
+                break;
+            case 1:
+                System.arraycopy(cur, 0, out, pos, bpp);
+                for (int i = bpp; i < rowBytes; i++) {
+                    out[pos + i] = (byte) (cur[i] - cur[i - bpp]);
+                }
+                break;
+            case 2:
+                for (int i = 0; i < rowBytes; i++) {
+                    out[pos + i] = (byte) (cur[i] - prev[i]);
+                }
+                break;
+            case 3:
+                for (int i = 0; i < rowBytes; i++) {
+                    int left = i >= bpp ? cur[i - bpp] & 0xff : 0;
+                    out[pos + i] = (byte) (cur[i] - ((left + (prev[i] & 0xff)) >> 1));
+                }
+                break;
+            default:
+                for (int i = 0; i < rowBytes; i++) {
+                    int a = i >= bpp ? cur[i - bpp] & 0xff : 0;
+                    int b = prev[i] & 0xff;
+                    int c = i >= bpp ? prev[i - bpp] & 0xff : 0;
+                    out[pos + i] = (byte) (cur[i] - paeth(a, b, c));
+                }
+                break;
+        }
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private static void writeChunk(OutputStream out, Context ctx, char t0, char t1, char t2, char t3,
+                                   byte[] data, int length) throws IOException {
+        byte[] buf = ctx.chunkHeader;
+        writeInt(buf, 0, length);
+        buf[4] = (byte) t0;
+        buf[5] = (byte) t1;
+        buf[6] = (byte) t2;
+        buf[7] = (byte) t3;
+        out.write(buf, 0, 8);
+        out.write(data, 0, length);
+
+        CRC32 crc = ctx.crc;
+        crc.reset();
+        crc.update(buf, 4, 4);
+        crc.update(data, 0, length);
+        writeInt(buf, 0, (int) crc.getValue());
+        out.write(buf, 0, 4);
+    }
+
+    private static void writeInt(byte[] buf, int pos, int value) {
+        buf[pos] = (byte) (value >>> 24);
+        buf[pos + 1] = (byte) (value >>> 16);
+        buf[pos + 2] = (byte) (value >>> 8);
+        buf[pos + 3] = (byte) value;
+    }
+
+    private static int estimateSize(BufferedImage image) {
+        // 验证码图像压缩后约为原始 RGB 数据的一半
+        return Math.max(1024, image.getWidth() * image.getHeight() * 3 / 2);
+    }
+
+    /**
+     * 线程私有的压缩器和缓冲区
+     * <p>
+     * Deflater 的本地内存随线程一起保留,不在每次编码后释放
+     */
+    private static class Context {
+        final Deflater deflater = new Deflater(DEFAULT_LEVEL);
+        final CRC32 crc = new CRC32();
+        final byte[] header = new byte[13];
+        final byte[] chunkHeader = new byte[8];
+        final byte[] palette = new byte[CaptchaPalette.MAX_COLORS * 3];
+        byte[] compressed = new byte[32 * 1024];
+        private byte[] filtered = new byte[0];
+        private byte[] prevRow = new byte[0];
+        private byte[] curRow = new byte[0];
+        private byte[] candidate = new byte[0];
+        private int[] rowPixels = new int[0];
+
+        byte[] filtered(int size) {
+            if (filtered.length < size) {
+                filtered = new byte[size];
+            }
+            return filtered;
+        }
+
+        byte[] prevRow(int size) {
+            if (prevRow.length < size) {
+                prevRow = new byte[size];
+            }
+            return prevRow;
+        }
+
+        byte[] curRow(int size) {
+            if (curRow.length < size) {
+                curRow = new byte[size];
+            }
+            return curRow;
+        }
+
+        byte[] candidate(int size) {
+            if (candidate.length < size) {
+                candidate = new byte[size];
+            }
+            return candidate;
+        }
+
+        int[] rowPixels(int size) {
+            if (rowPixels.length < size) {
+                rowPixels = new int[size];
+            }
+            return rowPixels;
+        }
+    }
+}
@@ -53,6 +53,16 @@ public class PuzzleUtil {
         return puzzleShape;
     }
 
+    /**
+     * 获取拼图块图像宽度(包含右侧凸起)
+     *
+     * @param width 拼图块宽度
+     * @return 拼图块图像宽度
+     */
+    public static int getPieceWidth(int width) {
+        return width + CIRCLE_RADIUS;
+    }
+
     /**
      * 从原图中切出拼图块
      *
@@ -65,7 +75,23 @@ public class PuzzleUtil {
      */
     public static BufferedImage cutPuzzlePiece(BufferedImage originalImage, int x, int y, int width, int height) {
         // 创建拼图块图像(只需要基本宽高,不需要额外空间)
-        BufferedImage puzzlePiece = new BufferedImage(width + CIRCLE_RADIUS, height, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage puzzlePiece = new BufferedImage(getPieceWidth(width), height, BufferedImage.TYPE_INT_ARGB);
+        return cutPuzzlePiece(originalImage, x, y, width, height, puzzlePiece);
+    }
+
+    /**
+     * 从原图中切出拼图块,绘制到已有的透明图像
+     *
+     * @param originalImage 原始图像
+     * @param x             拼图块 X 坐标
+     * @param y             拼图块 Y 坐标
+     * @param width         拼图块宽度
+     * @param height        拼图块高度
+     * @param puzzlePiece   全透明的目标图像(TYPE_INT_ARGB,尺寸见 {@link #getPieceWidth})
+     * @return 拼图块图像
+     */
+    public static BufferedImage cutPuzzlePiece(BufferedImage originalImage, int x, int y, int width, int height,
+                                               BufferedImage puzzlePiece) {
         Graphics2D g2d = puzzlePiece.createGraphics();
 
         // 抗锯齿
@@ -128,10 +154,22 @@ public class PuzzleUtil {
      * @return 拼图块 X 坐标
      */
     public static int generateRandomPuzzleX(int imageWidth, int puzzleWidth) {
+        return generateRandomPuzzleX(imageWidth, puzzleWidth, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源生成拼图块 X 坐标(即验证答案,应使用秘密随机数来源)
+     *
+     * @param imageWidth  图像宽度
+     * @param puzzleWidth 拼图块宽度
+     * @param random      随机数来源
+     * @return 拼图块 X 坐标
+     */
+    public static int generateRandomPuzzleX(int imageWidth, int puzzleWidth, RandomSource random) {
         // 留出左右边距,右侧需要考虑凸起圆的额外宽度
         int minX = imageWidth / 3;
         int maxX = imageWidth - puzzleWidth - CIRCLE_RADIUS - 20;
-        return RandomUtil.randomInt(minX, maxX);
+        return random.nextInt(minX, maxX);
     }
 
     /**
@@ -142,10 +180,22 @@ public class PuzzleUtil {
      * @return 拼图块 Y 坐标
      */
     public static int generateRandomPuzzleY(int imageHeight, int puzzleHeight) {
+        return generateRandomPuzzleY(imageHeight, puzzleHeight, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源生成拼图块 Y 坐标
+     *
+     * @param imageHeight  图像高度
+     * @param puzzleHeight 拼图块高度
+     * @param random       随机数来源
+     * @return 拼图块 Y 坐标
+     */
+    public static int generateRandomPuzzleY(int imageHeight, int puzzleHeight, RandomSource random) {
         // 留出上下边距
         int minY = 20;
         int maxY = imageHeight - puzzleHeight - 20;
-        return RandomUtil.randomInt(minY, maxY);
+        return random.nextInt(minY, maxY);
     }
 
     /**
@@ -0,0 +1,100 @@
+package io.github.purecaptcha.util;
+
+/**
+ * 随机数来源
+ * <p>
+ * 验证码中的随机数分为两类:
+ * <ul>
+ *   <li>秘密随机数:答案文本、算术操作数、拼图X坐标等,泄露即可破解验证码,使用 {@link #secure()}</li>
+ *   <li>装饰随机数:噪点坐标、圆圈大小、颜色、抖动角度等,只影响外观,使用 {@link #fast()}</li>
+ * </ul>
+ * 两类来源都通过 {@link io.github.purecaptcha.config.CaptchaConfig} 传给生成器,可按需替换。
+ * <p>
+ * 实现类必须线程安全。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public interface RandomSource {
+
+    /**
+     * 获取基于 SecureRandom 的秘密随机数来源
+     *
+     * @return 秘密随机数来源(共享实例)
+     */
+    static RandomSource secure() {
+        return SecureRandomSource.INSTANCE;
+    }
+
+    /**
+     * 获取每线程独立的快速随机数来源
+     *
+     * @return 快速随机数来源(共享实例)
+     */
+    static RandomSource fast() {
+        return FastRandomSource.INSTANCE;
+    }
+
+    /**
+     * 生成随机整数 [0, bound)
+     *
+     * @param bound 上界(不包含,必须大于0)
+     * @return 随机整数
+     */
+    int nextInt(int bound);
+
+    /**
+     * 生成随机浮点数 [0.0, 1.0)
+     *
+     * @return 随机浮点数
+     */
+    float nextFloat();
+
+    /**
+     * 生成随机布尔值
+     *
+     * @return 随机布尔值
+     */
+    boolean nextBoolean();
+
+    /**
+     * 生成指定范围内的随机整数 [min, max]
+     *
+     * @param min 最小值(包含)
+     * @param max 最大值(包含)
+     * @return 随机整数
+     */
+    default int nextInt(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min不能大于max");
+        }
+        return nextInt(max - min + 1) + min;
+    }
+
+    /**
+     * 从字符串中随机选择一个字符
+     *
+     * @param chars 字符串
+     * @return 随机字符
+     */
+    default char nextChar(String chars) {
+        if (chars == null || chars.isEmpty()) {
+            throw new IllegalArgumentException("字符串不能为空");
+        }
+        return chars.charAt(nextInt(chars.length()));
+    }
+
+    /**
+     * 从数组中随机选择一个元素
+     *
+     * @param array 数组
+     * @param <T> 元素类型
+     * @return 随机元素
+     */
+    default <T> T nextElement(T[] array) {
+        if (array == null || array.length == 0) {
+            throw new IllegalArgumentException("数组不能为空");
+        }
+        return array[nextInt(array.length)];
+    }
+}
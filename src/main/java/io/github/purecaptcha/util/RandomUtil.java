@@ -1,19 +1,17 @@
 package io.github.purecaptcha.util;
 
-import java.security.SecureRandom;
-import java.util.Random;
-
 /**
  * 随机数工具类
  * <p>
- * 基于SecureRandom实现,确保验证码的安全性
+ * 基于SecureRandom实现,确保验证码的安全性(等同于 {@link RandomSource#secure()})。
+ * 生成器应优先使用配置中的 {@link RandomSource},只对秘密随机数使用安全来源。
  *
  * @author PureCaptcha
  * @version 1.0.0
  */
 public class RandomUtil {
 
-    private static final Random RANDOM = new SecureRandom();
+    private static final RandomSource RANDOM = RandomSource.secure();
 
     /**
      * 生成指定范围内的随机整数 [min, max]
@@ -23,10 +21,7 @@ public class RandomUtil {
      * @return 随机整数
      */
     public static int randomInt(int min, int max) {
-        if (min > max) {
-            throw new IllegalArgumentException("min不能大于max");
-        }
-        return RANDOM.nextInt(max - min + 1) + min;
+        return RANDOM.nextInt(min, max);
     }
 
     /**
@@ -46,10 +41,7 @@ public class RandomUtil {
      * @return 随机字符
      */
     public static char randomChar(String chars) {
-        if (chars == null || chars.isEmpty()) {
-            throw new IllegalArgumentException("字符串不能为空");
-        }
-        return chars.charAt(RANDOM.nextInt(chars.length()));
+        return RANDOM.nextChar(chars);
     }
 
     /**
@@ -60,10 +52,7 @@ public class RandomUtil {
      * @return 随机元素
      */
     public static <T> T randomElement(T[] array) {
-        if (array == null || array.length == 0) {
-            throw new IllegalArgumentException("数组不能为空");
-        }
-        return array[RANDOM.nextInt(array.length)];
+        return RANDOM.nextElement(array);
     }
 
     /**
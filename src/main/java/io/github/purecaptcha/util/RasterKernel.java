@@ -0,0 +1,306 @@
+package io.github.purecaptcha.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * 直接像素绘制内核
+ * <p>
+ * 直接写入 TYPE_INT_RGB 图像的 {@link DataBufferInt},绕过 Java2D 的颜色设置、笔触和合成流水线,
+ * 用于噪点、Wu 抗锯齿直线和贝塞尔折线等大量细小图元。
+ * <p>
+ * 所有方法都不保存状态,可在多个线程中同时对不同图像调用。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class RasterKernel {
+
+    /**
+     * 获取图像的像素数组
+     *
+     * @param image TYPE_INT_RGB 图像
+     * @return 像素数组(直接引用,不是副本)
+     */
+    public static int[] pixels(BufferedImage image) {
+        if (image.getType() != BufferedImage.TYPE_INT_RGB || image.getRaster().getParent() != null) {
+            throw new IllegalArgumentException("只支持完整的TYPE_INT_RGB图像: " + image.getType());
+        }
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * 绘制噪点(效果同 {@link ImageUtil#drawNoisePoints})
+     *
+     * @param image 图像
+     * @param count 噪点数量
+     */
+    public static void drawNoisePoints(BufferedImage image, int count) {
+        drawNoisePoints(image, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制噪点
+     *
+     * @param image 图像
+     * @param count 噪点数量
+     * @param random 随机数来源
+     */
+    public static void drawNoisePoints(BufferedImage image, int count, RandomSource random) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = pixels(image);
+
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            pixels[y * width + x] = randomRgb(random, 50, 200);
+        }
+    }
+
+    /**
+     * 绘制干扰直线(效果同 {@link ImageUtil#drawInterferenceLines})
+     *
+     * @param image 图像
+     * @param count 干扰线数量
+     */
+    public static void drawInterferenceLines(BufferedImage image, int count) {
+        drawInterferenceLines(image, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制干扰直线
+     *
+     * @param image 图像
+     * @param count 干扰线数量
+     * @param random 随机数来源
+     */
+    public static void drawInterferenceLines(BufferedImage image, int count, RandomSource random) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = pixels(image);
+
+        for (int i = 0; i < count; i++) {
+            int rgb = randomRgb(random, 50, 200);
+            float lineWidth = random.nextInt(1, 3);
+
+            int x1 = random.nextInt(width);
+            int y1 = random.nextInt(height);
+            int x2 = random.nextInt(width);
+            int y2 = random.nextInt(height);
+
+            drawLine(pixels, width, height, x1, y1, x2, y2, rgb, 255, lineWidth);
+        }
+    }
+
+    /**
+     * 绘制现代化干扰线(效果同 {@link ImageUtil#drawModernInterferenceLines})
+     *
+     * @param image 图像
+     * @param count 干扰线数量
+     */
+    public static void drawModernInterferenceLines(BufferedImage image, int count) {
+        drawModernInterferenceLines(image, count, RandomSource.secure());
+    }
+
+    /**
+     * 使用指定随机数来源绘制现代化干扰线
+     *
+     * @param image 图像
+     * @param count 干扰线数量
+     * @param random 随机数来源
+     */
+    public static void drawModernInterferenceLines(BufferedImage image, int count, RandomSource random) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = pixels(image);
+
+        for (int i = 0; i < count; i++) {
+            // 随机决定是横向还是纵向线条
+            boolean isHorizontal = random.nextInt(100) < 60; // 60%概率横向
+
+            int x1, y1, x2, y2, ctrlX, ctrlY;
+
+            if (isHorizontal) {
+                // 横向线条（横穿字体区域）
+                x1 = 0;
+                x2 = width;
+                y1 = random.nextInt(height / 4, height * 3 / 4);
+                y2 = y1 + random.nextInt(-10, 10);
+                ctrlX = width / 2 + random.nextInt(-30, 30);
+                ctrlY = (y1 + y2) / 2 + random.nextInt(-15, 15);
+            } else {
+                // 随机线条
+                x1 = random.nextInt(width);
+                y1 = random.nextInt(height);
+                x2 = random.nextInt(width);
+                y2 = random.nextInt(height);
+                ctrlX = random.nextInt(width);
+                ctrlY = random.nextInt(height);
+            }
+
+            // 半透明的鲜艳颜色
+            int rgb = ColorUtil.randomVibrantColor(random).getRGB();
+            drawQuadCurve(pixels, width, height, x1, y1, ctrlX, ctrlY, x2, y2, rgb, 35, 1.5f);
+        }
+    }
+
+    /**
+     * 绘制二次贝塞尔曲线(展开为折线后逐段绘制)
+     *
+     * @param pixels 像素数组
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param x1 起点X
+     * @param y1 起点Y
+     * @param ctrlX 控制点X
+     * @param ctrlY 控制点Y
+     * @param x2 终点X
+     * @param y2 终点Y
+     * @param rgb 颜色
+     * @param alpha 透明度(0-255)
+     * @param lineWidth 线宽
+     */
+    public static void drawQuadCurve(int[] pixels, int width, int height,
+                                     float x1, float y1, float ctrlX, float ctrlY, float x2, float y2,
+                                     int rgb, int alpha, float lineWidth) {
+        // 按控制多边形长度估算分段数,每段约8像素
+        double length = Math.hypot(ctrlX - x1, ctrlY - y1) + Math.hypot(x2 - ctrlX, y2 - ctrlY);
+        int segments = Math.max(2, Math.min(64, (int) (length / 8)));
+
+        float prevX = x1;
+        float prevY = y1;
+        for (int i = 1; i <= segments; i++) {
+            float t = (float) i / segments;
+            float mt = 1 - t;
+            float x = mt * mt * x1 + 2 * mt * t * ctrlX + t * t * x2;
+            float y = mt * mt * y1 + 2 * mt * t * ctrlY + t * t * y2;
+            drawLine(pixels, width, height, prevX, prevY, x, y, rgb, alpha, lineWidth);
+            prevX = x;
+            prevY = y;
+        }
+    }
+
+    /**
+     * 绘制抗锯齿直线(Wu 算法)
+     * <p>
+     * 线宽大于1时沿次轴绘制多条相邻的Wu直线,覆盖率按线宽均分
+     *
+     * @param pixels 像素数组
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param x0 起点X
+     * @param y0 起点Y
+     * @param x1 终点X
+     * @param y1 终点Y
+     * @param rgb 颜色
+     * @param alpha 透明度(0-255)
+     * @param lineWidth 线宽
+     */
+    public static void drawLine(int[] pixels, int width, int height,
+                                float x0, float y0, float x1, float y1,
+                                int rgb, int alpha, float lineWidth) {
+        int passes = Math.max(1, (int) Math.ceil(lineWidth));
+        float coverage = lineWidth / passes;
+        boolean steep = Math.abs(y1 - y0) > Math.abs(x1 - x0);
+
+        for (int p = 0; p < passes; p++) {
+            float offset = p - (passes - 1) / 2f;
+            if (steep) {
+                drawWuLine(pixels, width, height, x0 + offset, y0, x1 + offset, y1, rgb, alpha, coverage);
+            } else {
+                drawWuLine(pixels, width, height, x0, y0 + offset, x1, y1 + offset, rgb, alpha, coverage);
+            }
+        }
+    }
+
+    private static void drawWuLine(int[] pixels, int width, int height,
+                                   float x0, float y0, float x1, float y1,
+                                   int rgb, int alpha, float coverage) {
+        boolean steep = Math.abs(y1 - y0) > Math.abs(x1 - x0);
+        float t;
+        if (steep) {
+            t = x0; x0 = y0; y0 = t;
+            t = x1; x1 = y1; y1 = t;
+        }
+        if (x0 > x1) {
+            t = x0; x0 = x1; x1 = t;
+            t = y0; y0 = y1; y1 = t;
+        }
+
+        float dx = x1 - x0;
+        float gradient = dx == 0 ? 1 : (y1 - y0) / dx;
+        float a = alpha * coverage;
+
+        // 起点
+        int xStart = Math.round(x0);
+        float yEnd = y0 + gradient * (xStart - x0);
+        float xGap = 1 - fpart(x0 + 0.5f);
+        int yi = (int) Math.floor(yEnd);
+        plot(pixels, width, height, steep, xStart, yi, rgb, a * (1 - fpart(yEnd)) * xGap);
+        plot(pixels, width, height, steep, xStart, yi + 1, rgb, a * fpart(yEnd) * xGap);
+        float intery = yEnd + gradient;
+
+        // 终点
+        int xEnd = Math.round(x1);
+        yEnd = y1 + gradient * (xEnd - x1);
+        xGap = fpart(x1 + 0.5f);
+        yi = (int) Math.floor(yEnd);
+        plot(pixels, width, height, steep, xEnd, yi, rgb, a * (1 - fpart(yEnd)) * xGap);
+        plot(pixels, width, height, steep, xEnd, yi + 1, rgb, a * fpart(yEnd) * xGap);
+
+        // 中间部分
+        for (int x = xStart + 1; x < xEnd; x++) {
+            yi = (int) Math.floor(intery);
+            float f = intery - yi;
+            plot(pixels, width, height, steep, x, yi, rgb, a * (1 - f));
+            plot(pixels, width, height, steep, x, yi + 1, rgb, a * f);
+            intery += gradient;
+        }
+    }
+
+    private static void plot(int[] pixels, int width, int height, boolean steep,
+                             int x, int y, int rgb, float alpha) {
+        if (steep) {
+            int t = x;
+            x = y;
+            y = t;
+        }
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return;
+        }
+        int a = (int) (alpha + 0.5f);
+        if (a <= 0) {
+            return;
+        }
+        int index = y * width + x;
+        pixels[index] = blend(pixels[index], rgb, Math.min(255, a));
+    }
+
+    /**
+     * SrcOver 混合单个像素(结果不含透明通道)
+     *
+     * @param dst 目标像素
+     * @param src 源颜色
+     * @param a 源透明度(0-255)
+     * @return 混合后的像素
+     */
+    static int blend(int dst, int src, int a) {
+        int ia = 255 - a;
+        int r = (((src >> 16) & 0xff) * a + ((dst >> 16) & 0xff) * ia + 127) / 255;
+        int g = (((src >> 8) & 0xff) * a + ((dst >> 8) & 0xff) * ia + 127) / 255;
+        int b = ((src & 0xff) * a + (dst & 0xff) * ia + 127) / 255;
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static float fpart(float v) {
+        return v - (float) Math.floor(v);
+    }
+
+    private static int randomRgb(RandomSource random, int min, int max) {
+        int r = random.nextInt(min, max);
+        int g = random.nextInt(min, max);
+        int b = random.nextInt(min, max);
+        return (r << 16) | (g << 8) | b;
+    }
+}
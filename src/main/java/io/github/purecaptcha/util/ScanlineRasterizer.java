@@ -0,0 +1,292 @@
+package io.github.purecaptcha.util;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.util.Arrays;
+
+/**
+ * 纯Java抗锯齿扫描线光栅化器
+ * <p>
+ * 将 {@link Shape} 轮廓展开为折线,按覆盖率累加算法(每条边把有符号面积写入所在像素及其右邻,
+ * 每行再做一次前缀和)计算每个像素的精确面积覆盖率,然后直接混合到 TYPE_INT_RGB 像素数组。
+ * <p>
+ * 不使用 Graphics2D,也不经过 JDK 内部的字形缓存和绘制流水线,所有临时缓冲区按线程保存,
+ * 多线程绘制之间没有任何共享锁,吞吐量可随绘制线程数线性扩展。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class ScanlineRasterizer {
+
+    // 曲线展开精度(像素)
+    private static final double FLATNESS = 0.1;
+
+    // 每个线程的临时缓冲区
+    private static final ThreadLocal<Context> CONTEXT = new ThreadLocal<Context>() {
+        @Override
+        protected Context initialValue() {
+            return new Context();
+        }
+    };
+
+    /**
+     * 填充形状
+     *
+     * @param pixels 像素数组(TYPE_INT_RGB)
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param shape 形状
+     * @param transform 坐标变换,可为null
+     * @param rgb 颜色
+     * @param alpha 透明度(0-255)
+     */
+    public static void fill(int[] pixels, int width, int height, Shape shape,
+                            AffineTransform transform, int rgb, int alpha) {
+        fill(pixels, width, height, shape, transform, rgb, alpha, true);
+    }
+
+    /**
+     * 填充形状,可关闭抗锯齿
+     * <p>
+     * 关闭抗锯齿时覆盖率不低于一半的像素按完整颜色绘制,其余像素跳过,边缘效果接近 Java2D 的非抗锯齿填充
+     *
+     * @param pixels 像素数组(TYPE_INT_RGB)
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param shape 形状
+     * @param transform 坐标变换,可为null
+     * @param rgb 颜色
+     * @param alpha 透明度(0-255)
+     * @param antialiasing 是否抗锯齿
+     */
+    public static void fill(int[] pixels, int width, int height, Shape shape,
+                            AffineTransform transform, int rgb, int alpha, boolean antialiasing) {
+        if (alpha <= 0) {
+            return;
+        }
+        Context ctx = CONTEXT.get();
+        PathIterator it = shape.getPathIterator(transform, FLATNESS);
+        boolean evenOdd = it.getWindingRule() == PathIterator.WIND_EVEN_ODD;
+
+        // 1. 展开为线段并计算包围盒
+        if (!ctx.flatten(it)) {
+            return;
+        }
+        int left = (int) Math.floor(ctx.minX);
+        int top = Math.max(0, (int) Math.floor(ctx.minY));
+        int bottom = Math.min(height, (int) Math.ceil(ctx.maxY));
+        int right = (int) Math.ceil(ctx.maxX);
+        if (top >= bottom || right <= 0 || left >= width) {
+            return;
+        }
+
+        // 2. 在包围盒局部坐标中累加覆盖率(列方向不裁剪,保证画布外的边仍参与累加)
+        int boxWidth = right - left;
+        int boxHeight = bottom - top;
+        int stride = boxWidth + 2;
+        float[] acc = ctx.accumulator(stride * boxHeight);
+
+        float[] segs = ctx.segments;
+        for (int i = 0; i < ctx.segmentCount; i += 4) {
+            accumulateLine(acc, stride, boxHeight,
+                    segs[i] - left, segs[i + 1] - top, segs[i + 2] - left, segs[i + 3] - top);
+        }
+
+        // 3. 逐行前缀和得到覆盖率并混合到画布
+        int colStart = Math.max(0, -left);
+        int colEnd = Math.min(boxWidth, width - left);
+        for (int y = 0; y < boxHeight; y++) {
+            int row = y * stride;
+            int dstRow = (top + y) * width + left;
+            float sum = 0;
+            for (int x = 0; x < boxWidth; x++) {
+                sum += acc[row + x];
+                if (x < colStart || x >= colEnd) {
+                    continue;
+                }
+                float coverage = evenOdd ? evenOddCoverage(sum) : Math.min(1f, Math.abs(sum));
+                if (!antialiasing) {
+                    coverage = coverage >= 0.5f ? 1f : 0f;
+                }
+                int a = (int) (coverage * alpha + 0.5f);
+                if (a > 0) {
+                    int index = dstRow + x;
+                    pixels[index] = a >= 255 ? rgb & 0xffffff : RasterKernel.blend(pixels[index], rgb, a);
+                }
+            }
+        }
+    }
+
+    /**
+     * 描边形状(先描边再变换,适用于圆角端点/连接及仅含旋转平移的变换)
+     *
+     * @param pixels 像素数组(TYPE_INT_RGB)
+     * @param width 图像宽度
+     * @param height 图像高度
+     * @param shape 形状
+     * @param transform 坐标变换,可为null
+     * @param stroke 笔触
+     * @param rgb 颜色
+     * @param alpha 透明度(0-255)
+     */
+    public static void stroke(int[] pixels, int width, int height, Shape shape, AffineTransform transform,
+                              BasicStroke stroke, int rgb, int alpha) {
+        fill(pixels, width, height, stroke.createStrokedShape(shape), transform, rgb, alpha);
+    }
+
+    /**
+     * 累加一条边的有符号面积覆盖
+     */
+    private static void accumulateLine(float[] acc, int stride, int height,
+                                       float x0, float y0, float x1, float y1) {
+        if (y0 == y1) {
+            return;
+        }
+        float dir;
+        if (y0 < y1) {
+            dir = 1f;
+        } else {
+            dir = -1f;
+            float t = x0; x0 = x1; x1 = t;
+            t = y0; y0 = y1; y1 = t;
+        }
+        float dxdy = (x1 - x0) / (y1 - y0);
+        float x = x0;
+        if (y0 < 0) {
+            x -= y0 * dxdy;
+            y0 = 0;
+        }
+        float yEnd = Math.min(height, y1);
+        if (y0 >= yEnd) {
+            return;
+        }
+
+        float xMax = stride - 2;
+        int yLimit = (int) Math.ceil(yEnd);
+        for (int y = (int) y0; y < yLimit; y++) {
+            int row = y * stride;
+            float dy = Math.min(y + 1, yEnd) - Math.max(y, y0);
+            float xNext = x + dxdy * dy;
+            float d = dy * dir;
+
+            float xa = Math.min(xMax, Math.max(0f, Math.min(x, xNext)));
+            float xb = Math.min(xMax, Math.max(0f, Math.max(x, xNext)));
+            float xaFloor = (float) Math.floor(xa);
+            int xai = (int) xaFloor;
+            float xbCeil = (float) Math.ceil(xb);
+            int xbi = (int) xbCeil;
+
+            if (xbi <= xai + 1) {
+                // 边在一个像素内
+                float xmf = 0.5f * (xa + xb) - xaFloor;
+                acc[row + xai] += d - d * xmf;
+                acc[row + xai + 1] += d * xmf;
+            } else {
+                // 边跨越多个像素,按梯形面积分配
+                float s = 1f / (xb - xa);
+                float xaf = xa - xaFloor;
+                float a0 = 0.5f * s * (1f - xaf) * (1f - xaf);
+                float xbf = xb - xbCeil + 1f;
+                float am = 0.5f * s * xbf * xbf;
+                acc[row + xai] += d * a0;
+                if (xbi == xai + 2) {
+                    acc[row + xai + 1] += d * (1f - a0 - am);
+                } else {
+                    float a1 = s * (1.5f - xaf);
+                    acc[row + xai + 1] += d * (a1 - a0);
+                    for (int xi = xai + 2; xi < xbi - 1; xi++) {
+                        acc[row + xi] += d * s;
+                    }
+                    float a2 = a1 + (xbi - xai - 3) * s;
+                    acc[row + xbi - 1] += d * (1f - a2 - am);
+                }
+                acc[row + xbi] += d * am;
+            }
+            x = xNext;
+        }
+    }
+
+    private static float evenOddCoverage(float sum) {
+        float v = Math.abs(sum) % 2f;
+        return v > 1f ? 2f - v : v;
+    }
+
+    /**
+     * 线程私有的线段和累加缓冲区
+     */
+    private static class Context {
+        float[] segments = new float[256];
+        int segmentCount;
+        float minX;
+        float minY;
+        float maxX;
+        float maxY;
+        private float[] acc = new float[4096];
+        private final float[] coords = new float[6];
+
+        float[] accumulator(int size) {
+            if (acc.length < size) {
+                acc = new float[Math.max(size, acc.length * 2)];
+            } else {
+                Arrays.fill(acc, 0, size, 0f);
+            }
+            return acc;
+        }
+
+        /**
+         * 展开路径为线段(自动闭合子路径)
+         *
+         * @return 是否包含至少一条线段
+         */
+        boolean flatten(PathIterator it) {
+            segmentCount = 0;
+            minX = minY = Float.POSITIVE_INFINITY;
+            maxX = maxY = Float.NEGATIVE_INFINITY;
+            float startX = 0, startY = 0, lastX = 0, lastY = 0;
+
+            for (; !it.isDone(); it.next()) {
+                switch (it.currentSegment(coords)) {
+                    case PathIterator.SEG_MOVETO:
+                        addSegment(lastX, lastY, startX, startY);
+                        startX = lastX = coords[0];
+                        startY = lastY = coords[1];
+                        break;
+                    case PathIterator.SEG_LINETO:
+                        addSegment(lastX, lastY, coords[0], coords[1]);
+                        lastX = coords[0];
+                        lastY = coords[1];
+                        break;
+                    case PathIterator.SEG_CLOSE:
+                        addSegment(lastX, lastY, startX, startY);
+                        lastX = startX;
+                        lastY = startY;
+                        break;
+                    default:
+                        // 展开后的迭代器不会返回曲线段
+                        break;
+                }
+            }
+            addSegment(lastX, lastY, startX, startY);
+            return segmentCount > 0;
+        }
+
+        private void addSegment(float x0, float y0, float x1, float y1) {
+            if (x0 == x1 && y0 == y1) {
+                return;
+            }
+            if (segmentCount + 4 > segments.length) {
+                segments = Arrays.copyOf(segments, segments.length * 2);
+            }
+            segments[segmentCount++] = x0;
+            segments[segmentCount++] = y0;
+            segments[segmentCount++] = x1;
+            segments[segmentCount++] = y1;
+            minX = Math.min(minX, Math.min(x0, x1));
+            maxX = Math.max(maxX, Math.max(x0, x1));
+            minY = Math.min(minY, Math.min(y0, y1));
+            maxY = Math.max(maxY, Math.max(y0, y1));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.purecaptcha.util;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * 基于 SecureRandom 的秘密随机数来源
+ * <p>
+ * 用于答案文本、算术操作数、拼图位置等不可被预测的随机数。
+ * <p>
+ * 每个线程持有一个熵缓冲区,一次从 SecureRandom 取出一整块随机字节(默认4KB),
+ * 之后的取值直接消费缓冲区中的字节,不再逐次进入 SecureRandom 的同步锁和底层熵源。
+ * 生成一个5位字符验证码原本需要5次 SecureRandom 调用,现在约每800个验证码才调用一次。
+ * <p>
+ * 区间取值使用拒绝采样:只接受落在 bound 整数倍范围内的字节组合,结果严格均匀,没有取模偏差。
+ * 已消费的字节会立即清零,缓冲区中只保留尚未使用的随机数。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class SecureRandomSource implements RandomSource {
+
+    static final SecureRandomSource INSTANCE = new SecureRandomSource();
+
+    // 默认每次从 SecureRandom 取出的字节数
+    private static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private final SecureRandom random;
+    private final int blockSize;
+
+    private final ThreadLocal<EntropyBuffer> buffer = new ThreadLocal<EntropyBuffer>() {
+        @Override
+        protected EntropyBuffer initialValue() {
+            return new EntropyBuffer(blockSize);
+        }
+    };
+
+    /**
+     * 使用默认 SecureRandom 创建
+     */
+    public SecureRandomSource() {
+        this(new SecureRandom());
+    }
+
+    /**
+     * 使用指定的 SecureRandom 创建
+     *
+     * @param random SecureRandom实例
+     */
+    public SecureRandomSource(SecureRandom random) {
+        this(random, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * 使用指定的 SecureRandom 和缓冲块大小创建
+     *
+     * @param random SecureRandom实例
+     * @param blockSize 每次取出的字节数(至少4)
+     */
+    public SecureRandomSource(SecureRandom random, int blockSize) {
+        if (random == null) {
+            throw new IllegalArgumentException("random不能为空");
+        }
+        if (blockSize < 4) {
+            throw new IllegalArgumentException("blockSize不能小于4");
+        }
+        this.random = random;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound必须大于0");
+        }
+        if (bound == 1) {
+            return 0;
+        }
+
+        // 用能覆盖 bound 的最少字节数取值,丢弃不足一个完整周期的尾部
+        int bytes = byteCount(bound - 1);
+        long range = 1L << (bytes * 8);
+        long limit = range - range % bound;
+
+        EntropyBuffer buf = buffer.get();
+        while (true) {
+            long value = buf.next(random, bytes);
+            if (value < limit) {
+                return (int) (value % bound);
+            }
+        }
+    }
+
+    @Override
+    public float nextFloat() {
+        return buffer.get().next(random, 3) * 0x1.0p-24f;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return (buffer.get().next(random, 1) & 1) != 0;
+    }
+
+    /**
+     * 表示 [0, value] 所需的字节数
+     */
+    private static int byteCount(int value) {
+        return (32 - Integer.numberOfLeadingZeros(value) + 7) / 8;
+    }
+
+    /**
+     * 线程私有的熵缓冲区
+     */
+    private static class EntropyBuffer {
+        private final byte[] data;
+        private int position;
+
+        EntropyBuffer(int size) {
+            data = new byte[size];
+            position = size;
+        }
+
+        /**
+         * 读取若干字节组成的无符号整数(大端),缓冲区耗尽时整块补充
+         */
+        long next(SecureRandom random, int bytes) {
+            if (position + bytes > data.length) {
+                random.nextBytes(data);
+                position = 0;
+            }
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value = (value << 8) | (data[position] & 0xff);
+                data[position++] = 0;
+            }
+            return value;
+        }
+    }
+}
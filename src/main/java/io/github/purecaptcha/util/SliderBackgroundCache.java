@@ -0,0 +1,354 @@
+package io.github.purecaptcha.util;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 滑动验证码背景图片缓存
+ * <p>
+ * 内置背景按 (背景, 宽度, 高度) 缓存解码并缩放后的图片,
+ * 每次请求只复制一次像素数组,避免重复的PNG/JPEG解码和双线性缩放。
+ * <p>
+ * 自定义背景图片按 (路径, 文件修改时间, 宽度, 高度) 放入有界LRU缓存,
+ * 文件被替换后修改时间变化即自动失效;同一键的并发未命中只会触发一次解码。
+ * <p>
+ * 线程安全,缓存的图片只读,对外总是返回副本。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class SliderBackgroundCache {
+
+    // 最大缓存条目数,超出后整体清空(正常使用只有少量尺寸组合)
+    private static final int MAX_BUILTIN_ENTRIES = 64;
+
+    // 自定义背景图片LRU缓存默认容量
+    private static final int DEFAULT_FILE_CAPACITY = 32;
+
+    private static final ConcurrentMap<BuiltinKey, BufferedImage> BUILTIN_CACHE = new ConcurrentHashMap<>();
+
+    private static volatile int fileCapacity = DEFAULT_FILE_CAPACITY;
+
+    // 按访问顺序排列的LRU缓存,所有访问在自身锁内完成
+    private static final LinkedHashMap<FileKey, BufferedImage> FILE_CACHE =
+            new LinkedHashMap<FileKey, BufferedImage>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FileKey, BufferedImage> eldest) {
+                    if (size() > fileCapacity) {
+                        FILE_EVICTIONS.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+
+    // 正在解码中的请求,用于合并并发未命中
+    private static final ConcurrentMap<FileKey, FutureTask<BufferedImage>> FILE_IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private static final AtomicLong FILE_HITS = new AtomicLong();
+    private static final AtomicLong FILE_MISSES = new AtomicLong();
+    private static final AtomicLong FILE_EVICTIONS = new AtomicLong();
+
+    /**
+     * 获取缩放后的内置背景图片副本
+     *
+     * @param background 内置背景
+     * @param width 目标宽度
+     * @param height 目标高度
+     * @return 背景图片副本(可自由修改),加载失败返回null
+     */
+    public static BufferedImage getBuiltin(BuiltinSliderBackground background, int width, int height) {
+        BufferedImage scaled = lookupBuiltin(background, width, height);
+        return scaled == null ? null : ImageUtil.copyImage(scaled);
+    }
+
+    /**
+     * 将缩放后的内置背景图片复制到已有画布(尺寸取画布尺寸)
+     *
+     * @param background 内置背景
+     * @param target 目标画布(TYPE_INT_RGB)
+     * @return 目标画布,加载失败返回null
+     */
+    public static BufferedImage copyBuiltin(BuiltinSliderBackground background, BufferedImage target) {
+        BufferedImage scaled = lookupBuiltin(background, target.getWidth(), target.getHeight());
+        return scaled == null ? null : ImageUtil.copyImage(scaled, target);
+    }
+
+    private static BufferedImage lookupBuiltin(BuiltinSliderBackground background, int width, int height) {
+        if (background == null) {
+            return null;
+        }
+
+        BuiltinKey key = new BuiltinKey(background, width, height);
+        BufferedImage scaled = BUILTIN_CACHE.get(key);
+        if (scaled == null) {
+            BufferedImage source = ImageUtil.loadImageFromResource(background.getResourcePath());
+            if (source == null) {
+                return null;
+            }
+            if (BUILTIN_CACHE.size() >= MAX_BUILTIN_ENTRIES) {
+                BUILTIN_CACHE.clear();
+            }
+            scaled = ImageUtil.scaleImage(source, width, height);
+            BufferedImage existing = BUILTIN_CACHE.putIfAbsent(key, scaled);
+            if (existing != null) {
+                scaled = existing;
+            }
+        }
+        return scaled;
+    }
+
+    /**
+     * 获取缩放后的自定义背景图片副本
+     * <p>
+     * 并发未命中同一文件时,只有一个线程解码,其余线程等待并共享结果
+     *
+     * @param imagePath 图片文件路径
+     * @param width 目标宽度
+     * @param height 目标高度
+     * @return 背景图片副本(可自由修改),加载失败返回null
+     */
+    public static BufferedImage getFromFile(String imagePath, int width, int height) {
+        BufferedImage scaled = lookupFile(imagePath, width, height);
+        return scaled == null ? null : ImageUtil.copyImage(scaled);
+    }
+
+    /**
+     * 将缩放后的自定义背景图片复制到已有画布(尺寸取画布尺寸)
+     *
+     * @param imagePath 图片文件路径
+     * @param target 目标画布(TYPE_INT_RGB)
+     * @return 目标画布,加载失败返回null
+     */
+    public static BufferedImage copyFromFile(String imagePath, BufferedImage target) {
+        BufferedImage scaled = lookupFile(imagePath, target.getWidth(), target.getHeight());
+        return scaled == null ? null : ImageUtil.copyImage(scaled, target);
+    }
+
+    private static BufferedImage lookupFile(final String imagePath, final int width, final int height) {
+        if (imagePath == null || imagePath.trim().isEmpty()) {
+            return null;
+        }
+
+        File file = new File(imagePath);
+        FileKey key = new FileKey(imagePath, file.lastModified(), width, height);
+
+        FutureTask<BufferedImage> task = new FutureTask<>(new Callable<BufferedImage>() {
+            @Override
+            public BufferedImage call() {
+                return ImageUtil.scaleImage(ImageUtil.loadImageFromFile(imagePath), width, height);
+            }
+        });
+        FutureTask<BufferedImage> inFlight;
+        // 缓存查找与登记解码任务在同一把锁内完成:解码线程先写入缓存再移除登记,
+        // 因此未命中缓存的线程一定能看到正在进行的解码任务,不会重复解码
+        synchronized (FILE_CACHE) {
+            BufferedImage scaled = FILE_CACHE.get(key);
+            if (scaled != null) {
+                FILE_HITS.incrementAndGet();
+                return scaled;
+            }
+            inFlight = FILE_IN_FLIGHT.putIfAbsent(key, task);
+        }
+        if (inFlight == null) {
+            // 当前线程负责解码
+            FILE_MISSES.incrementAndGet();
+            inFlight = task;
+            try {
+                task.run();
+                BufferedImage loaded = task.get();
+                if (loaded != null) {
+                    synchronized (FILE_CACHE) {
+                        FILE_CACHE.put(key, loaded);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                return null;
+            } finally {
+                FILE_IN_FLIGHT.remove(key, task);
+            }
+        } else {
+            // 其他线程正在解码,等待结果
+            FILE_HITS.incrementAndGet();
+        }
+
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("加载图片失败: " + imagePath + " - " + e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * 设置自定义背景图片缓存容量
+     *
+     * @param capacity 最大缓存条目数
+     */
+    public static void setFileCacheCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity必须大于0");
+        }
+        fileCapacity = capacity;
+    }
+
+    /**
+     * 获取自定义背景图片缓存命中次数(包含等待其他线程解码的请求)
+     */
+    public static long getFileCacheHits() {
+        return FILE_HITS.get();
+    }
+
+    /**
+     * 获取自定义背景图片缓存未命中次数(即实际解码次数)
+     */
+    public static long getFileCacheMisses() {
+        return FILE_MISSES.get();
+    }
+
+    /**
+     * 获取自定义背景图片缓存淘汰次数
+     */
+    public static long getFileCacheEvictions() {
+        return FILE_EVICTIONS.get();
+    }
+
+    /**
+     * 获取自定义背景图片缓存当前条目数
+     */
+    public static int getFileCacheSize() {
+        synchronized (FILE_CACHE) {
+            return FILE_CACHE.size();
+        }
+    }
+
+    /**
+     * 预加载所有内置背景到指定尺寸
+     *
+     * @param width 目标宽度
+     * @param height 目标高度
+     */
+    public static void preloadBuiltin(int width, int height) {
+        for (BuiltinSliderBackground background : BuiltinSliderBackground.values()) {
+            lookupBuiltin(background, width, height);
+        }
+    }
+
+    /**
+     * 预加载指定内置背景到指定尺寸
+     *
+     * @param background 内置背景
+     * @param width 目标宽度
+     * @param height 目标高度
+     * @return 是否加载成功
+     */
+    public static boolean preloadBuiltin(BuiltinSliderBackground background, int width, int height) {
+        return lookupBuiltin(background, width, height) != null;
+    }
+
+    /**
+     * 预加载自定义背景图片到指定尺寸
+     *
+     * @param imagePath 图片文件路径
+     * @param width 目标宽度
+     * @param height 目标高度
+     * @return 是否加载成功
+     */
+    public static boolean preloadFile(String imagePath, int width, int height) {
+        return lookupFile(imagePath, width, height) != null;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        BUILTIN_CACHE.clear();
+        synchronized (FILE_CACHE) {
+            FILE_CACHE.clear();
+        }
+    }
+
+    /**
+     * 内置背景缓存键
+     */
+    private static class BuiltinKey {
+        final BuiltinSliderBackground background;
+        final int width;
+        final int height;
+
+        BuiltinKey(BuiltinSliderBackground background, int width, int height) {
+            this.background = background;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BuiltinKey)) {
+                return false;
+            }
+            BuiltinKey other = (BuiltinKey) o;
+            return background == other.background && width == other.width && height == other.height;
+        }
+
+        @Override
+        public int hashCode() {
+            return (background.hashCode() * 31 + width) * 31 + height;
+        }
+    }
+
+    /**
+     * 自定义背景缓存键
+     */
+    private static class FileKey {
+        final String path;
+        final long lastModified;
+        final int width;
+        final int height;
+
+        FileKey(String path, long lastModified, int width, int height) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FileKey)) {
+                return false;
+            }
+            FileKey other = (FileKey) o;
+            return lastModified == other.lastModified && width == other.width
+                    && height == other.height && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = path.hashCode();
+            result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+            result = 31 * result + width;
+            return 31 * result + height;
+        }
+    }
+}
@@ -2,12 +2,17 @@ package io.github.purecaptcha;
 
 import io.github.purecaptcha.config.CaptchaConfig;
 import io.github.purecaptcha.core.Captcha;
+import io.github.purecaptcha.core.CaptchaGenerator;
 import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.core.ImageFormat;
 import org.junit.Test;
 
 import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -120,6 +125,52 @@ public class AlphanumericCaptchaTest {
         assertEquals("图像高度应为60", 60, captcha.getHeight());
     }
 
+    @Test
+    public void testGenerateIntoReusesCanvas() {
+        CaptchaConfig config = CaptchaConfig.builder().build();
+
+        Captcha first = CaptchaFactory.createReusing(CaptchaType.ALPHANUMERIC, config);
+        Captcha second = CaptchaFactory.createReusing(CaptchaType.ALPHANUMERIC, config);
+
+        // 同一线程连续生成时复用同一画布
+        assertSame("应复用同一画布", first.getImage(), second.getImage());
+        assertEquals("宽度应与配置一致", config.getWidth(), second.getWidth());
+        assertEquals("默认答案长度应为5", 5, second.getAnswer().length());
+    }
+
+    @Test
+    public void testGeneratorIsShared() {
+        CaptchaGenerator generator = CaptchaFactory.getGenerator(CaptchaType.ALPHANUMERIC);
+
+        assertSame("同一类型应返回共享的生成器", generator, CaptchaFactory.getGenerator(CaptchaType.ALPHANUMERIC));
+        assertEquals("生成器类型应为ALPHANUMERIC", CaptchaType.ALPHANUMERIC, generator.getSupportedType());
+    }
+
+    @Test
+    public void testCreateAsync() throws Exception {
+        CaptchaConfig config = CaptchaConfig.builder().build();
+
+        Captcha captcha = CaptchaFactory.createAsync(CaptchaType.ALPHANUMERIC, config)
+                .get(10, TimeUnit.SECONDS);
+
+        assertNotNull("异步生成的图像不应为null", captcha.getImage());
+        assertEquals("默认答案长度应为5", 5, captcha.getAnswer().length());
+    }
+
+    @Test
+    public void testEncodedIsCached() throws IOException {
+        Captcha captcha = CaptchaFactory.create(CaptchaType.ALPHANUMERIC);
+
+        byte[] png = captcha.getEncoded(ImageFormat.PNG);
+        assertSame("同一格式只应编码一次", png, captcha.getEncoded(ImageFormat.PNG));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        captcha.writeTo(out, ImageFormat.PNG);
+        assertArrayEquals("写入的数据应与缓存一致", png, out.toByteArray());
+        assertEquals("解码后宽度应一致", captcha.getWidth(),
+                ImageIO.read(new ByteArrayInputStream(png)).getWidth());
+    }
+
     @Test
     public void testSaveImage() throws IOException {
         Captcha captcha = CaptchaFactory.create(CaptchaType.ALPHANUMERIC);
@@ -0,0 +1,223 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.util.AnimatedGifEncoder;
+import io.github.purecaptcha.util.CaptchaPalette;
+import io.github.purecaptcha.util.ImageUtil;
+import org.junit.Test;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * GIF 动画编码器测试
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class AnimatedGifEncoderTest {
+
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 50;
+    private static final int FRAMES = 5;
+
+    @Test
+    public void testDeltaFramesMatchFullFrames() throws IOException {
+        List<BufferedImage> frames = createFrames();
+        CaptchaPalette palette = CaptchaPalette.fixed(Color.WHITE, null);
+
+        // 固定调色板下像素映射与帧无关,差分帧合成后应与完整帧逐像素一致
+        List<BufferedImage> expected = decodeFrames(encode(frames, palette, false, false));
+        for (boolean localPalettes : new boolean[]{false, true}) {
+            List<BufferedImage> actual = composite(encode(frames, palette, true, localPalettes));
+            assertEquals("帧数应一致", FRAMES, actual.size());
+            for (int i = 0; i < FRAMES; i++) {
+                assertSamePixels("局部颜色表=" + localPalettes + " 第" + i + "帧", expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testDeltaFramesWithQuantization() throws IOException {
+        List<BufferedImage> frames = createFrames();
+
+        // 每帧量化时差分帧与完整帧的调色板不同,只要求合成结果接近原图
+        List<BufferedImage> actual = composite(encode(frames, null, true, true));
+        assertEquals("帧数应一致", FRAMES, actual.size());
+        for (int i = 0; i < FRAMES; i++) {
+            double error = meanError(frames.get(i), actual.get(i));
+            assertTrue("第" + i + "帧平均误差过大: " + error, error < 4.0);
+        }
+    }
+
+    @Test
+    public void testWriteFailureKeepsCause() {
+        final IOException disconnected = new IOException("连接已断开");
+        OutputStream broken = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 64) {
+                    throw disconnected;
+                }
+            }
+        };
+
+        AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+        assertTrue("写入文件头应成功", encoder.start(broken));
+        assertFalse("输出流异常时添加帧应失败", encoder.addFrame(createFrames().get(0)));
+        assertSame("应保留原始异常", disconnected, encoder.getLastError());
+    }
+
+    /**
+     * 静止背景 + 逐帧移动的抗锯齿文字
+     */
+    private static List<BufferedImage> createFrames() {
+        BufferedImage background = ImageUtil.createImage(WIDTH, HEIGHT);
+        Graphics2D g2d = background.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.setColor(new Color(72, 219, 251, 60));
+        g2d.fillOval(10, 5, 60, 40);
+        g2d.setColor(new Color(255, 159, 67, 60));
+        g2d.fillOval(100, 10, 50, 30);
+        g2d.dispose();
+
+        List<BufferedImage> frames = new ArrayList<>();
+        for (int i = 0; i < FRAMES; i++) {
+            BufferedImage frame = ImageUtil.copyImage(background);
+            Graphics2D fg = frame.createGraphics();
+            fg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            fg.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            fg.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 28));
+            fg.setColor(new Color(255, 89, 163));
+            fg.drawString("Ab3", 30 + i * 6, 35 + (i % 2) * 3);
+            fg.dispose();
+            frames.add(frame);
+        }
+        return frames;
+    }
+
+    private static byte[] encode(List<BufferedImage> frames, CaptchaPalette palette,
+                                 boolean deltaFrames, boolean localPalettes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnimatedGifEncoder encoder = new AnimatedGifEncoder();
+        encoder.start(out);
+        encoder.setRepeat(0);
+        encoder.setDelay(200);
+        encoder.setPalette(palette);
+        encoder.setDeltaFrames(deltaFrames);
+        encoder.setLocalPalettes(localPalettes);
+        for (BufferedImage frame : frames) {
+            assertTrue("添加帧应成功", encoder.addFrame(frame));
+        }
+        assertTrue("结束编码应成功", encoder.finish());
+        return out.toByteArray();
+    }
+
+    /**
+     * 逐帧解码(不合成)
+     */
+    private static List<BufferedImage> decodeFrames(byte[] gif) throws IOException {
+        List<BufferedImage> frames = new ArrayList<>();
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(gif))) {
+            reader.setInput(input);
+            int count = reader.getNumImages(true);
+            for (int i = 0; i < count; i++) {
+                frames.add(reader.read(i));
+            }
+        } finally {
+            reader.dispose();
+        }
+        return frames;
+    }
+
+    /**
+     * 按帧位置、透明色和处置方式合成每一帧的显示结果
+     */
+    private static List<BufferedImage> composite(byte[] gif) throws IOException {
+        List<BufferedImage> frames = new ArrayList<>();
+        ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(gif))) {
+            reader.setInput(input);
+            BufferedImage canvas = ImageUtil.createImage(WIDTH, HEIGHT);
+            int count = reader.getNumImages(true);
+            for (int i = 0; i < count; i++) {
+                BufferedImage frame = reader.read(i);
+                IIOMetadata metadata = reader.getImageMetadata(i);
+                Node root = metadata.getAsTree(metadata.getNativeMetadataFormatName());
+                Node descriptor = child(root, "ImageDescriptor");
+                int left = Integer.parseInt(attribute(descriptor, "imageLeftPosition"));
+                int top = Integer.parseInt(attribute(descriptor, "imageTopPosition"));
+
+                Graphics2D g2d = canvas.createGraphics();
+                g2d.drawImage(frame, left, top, null);
+                g2d.dispose();
+                frames.add(ImageUtil.copyImage(canvas));
+
+                // 差分帧依赖上一帧保留在画布上
+                String disposal = attribute(child(root, "GraphicControlExtension"), "disposalMethod");
+                if (i > 0) {
+                    assertEquals("差分帧应保留上一帧", "doNotDispose", disposal);
+                }
+            }
+        } finally {
+            reader.dispose();
+        }
+        return frames;
+    }
+
+    private static Node child(Node parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (name.equals(node.getNodeName())) {
+                return node;
+            }
+        }
+        throw new AssertionError("缺少元数据节点: " + name);
+    }
+
+    private static String attribute(Node node, String name) {
+        return node.getAttributes().getNamedItem(name).getNodeValue();
+    }
+
+    private static double meanError(BufferedImage expected, BufferedImage actual) {
+        long total = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int a = expected.getRGB(x, y);
+                int b = actual.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    total += Math.abs(((a >> shift) & 0xff) - ((b >> shift) & 0xff));
+                }
+            }
+        }
+        return total / (WIDTH * HEIGHT * 3.0);
+    }
+
+    private static void assertSamePixels(String message, BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(message + " 像素(" + x + "," + y + ")应一致",
+                        expected.getRGB(x, y) | 0xff000000, actual.getRGB(x, y) | 0xff000000);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.Test;
 import javax.imageio.ImageIO;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -100,6 +101,19 @@ public class ArithmeticCaptchaTest {
         assertEquals("图像高度应为60", 60, captcha.getHeight());
     }
 
+    @Test
+    public void testCreateBatch() {
+        CaptchaConfig config = CaptchaConfig.builder().build();
+
+        List<Captcha> batch = CaptchaFactory.createBatch(CaptchaType.ARITHMETIC, config, 50);
+
+        assertEquals("应生成50个验证码", 50, batch.size());
+        for (Captcha captcha : batch) {
+            assertNotNull("批量生成的验证码不应为null", captcha);
+            assertTrue("答案应为正整数", Integer.parseInt(captcha.getAnswer()) > 0);
+        }
+    }
+
     @Test
     public void testSaveImage() throws IOException {
         Captcha captcha = CaptchaFactory.create(CaptchaType.ARITHMETIC);
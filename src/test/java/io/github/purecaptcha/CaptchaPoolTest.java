@@ -0,0 +1,99 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.config.CaptchaConfig;
+import io.github.purecaptcha.core.Captcha;
+import io.github.purecaptcha.core.CaptchaType;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * 验证码预生成池测试
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class CaptchaPoolTest {
+
+    @Test
+    public void testMissThenHit() throws InterruptedException {
+        CaptchaConfig config = CaptchaConfig.builder().build();
+
+        try (CaptchaPool pool = new CaptchaPool(8, 4, 1)) {
+            // 首次获取必然未命中,同步生成
+            Captcha first = pool.take(CaptchaType.ALPHANUMERIC, config);
+            assertNotNull("验证码对象不应为null", first);
+            assertEquals("首次应未命中", 1, pool.getStats().getMisses());
+
+            // 等待后台补充
+            for (int i = 0; i < 100 && pool.available(CaptchaType.ALPHANUMERIC, config) < 8; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals("队列应被填满", 8, pool.available(CaptchaType.ALPHANUMERIC, config));
+
+            Captcha second = pool.take(CaptchaType.ALPHANUMERIC, config);
+            assertEquals("验证码类型应为ALPHANUMERIC", CaptchaType.ALPHANUMERIC, second.getType());
+            assertEquals("第二次应命中", 1, pool.getStats().getHits());
+
+            // 补充次数在补充任务结束时记录,可能晚于队列填满
+            for (int i = 0; i < 100 && pool.getStats().getRefills() < 1; i++) {
+                Thread.sleep(20);
+            }
+            assertTrue("应记录补充次数", pool.getStats().getRefills() >= 1);
+        }
+    }
+
+    @Test
+    public void testRefillFailureIsCounted() throws InterruptedException {
+        // 宽度为0时无法创建画布,每次生成都会失败
+        CaptchaConfig config = CaptchaConfig.builder().width(0).build();
+
+        try (CaptchaPool pool = new CaptchaPool(4, 4, 1)) {
+            try {
+                pool.take(CaptchaType.ALPHANUMERIC, config);
+                fail("同步生成应抛出异常");
+            } catch (RuntimeException expected) {
+                // 请求线程得到生成器的异常
+            }
+            for (int i = 0; i < 100 && pool.getStats().getRefillFailures() < 1; i++) {
+                Thread.sleep(20);
+            }
+            assertEquals("后台补充失败应计入统计", 1, pool.getStats().getRefillFailures());
+            assertEquals("失败后不应入队", 0, pool.available(CaptchaType.ALPHANUMERIC, config));
+        }
+    }
+
+    @Test
+    public void testSlotsAreBounded() {
+        try (CaptchaPool pool = new CaptchaPool(4, 0, 1, 2)) {
+            CaptchaConfig first = CaptchaConfig.builder().build();
+            pool.take(CaptchaType.ARITHMETIC, first);
+            pool.take(CaptchaType.ARITHMETIC, CaptchaConfig.builder().build());
+            assertEquals("未超过上限时不应淘汰", 0, pool.getStats().getEvictions());
+
+            // 每次新建配置都会占用一个队列,超过上限后淘汰最久未使用的队列
+            pool.take(CaptchaType.ARITHMETIC, CaptchaConfig.builder().build());
+            assertEquals("应淘汰一个队列", 1, pool.getStats().getEvictions());
+            assertEquals("被淘汰的队列不应保留验证码", 0, pool.available(CaptchaType.ARITHMETIC, first));
+        }
+    }
+
+    @Test
+    public void testCaptchaNotReused() throws InterruptedException {
+        CaptchaConfig config = CaptchaConfig.builder().build();
+
+        try (CaptchaPool pool = new CaptchaPool(16, 8, 2)) {
+            pool.warmUp(CaptchaType.ARITHMETIC, config);
+            Thread.sleep(200);
+
+            // 同一个验证码对象不应被下发两次
+            Set<Captcha> seen = new HashSet<>();
+            for (int i = 0; i < 40; i++) {
+                assertTrue("验证码不应重复下发", seen.add(pool.take(CaptchaType.ARITHMETIC, config)));
+            }
+        }
+    }
+}
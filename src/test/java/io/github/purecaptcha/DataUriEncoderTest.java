@@ -0,0 +1,77 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.util.DataUriEncoder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * data URI 编码工具测试
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class DataUriEncoderTest {
+
+    private static final String MIME_TYPE = "image/png";
+
+    // 覆盖三种填充情况,并跨过内部字符缓冲区的多次刷新
+    private static final int MAX_LENGTH = 5000;
+
+    @Test
+    public void testEncodeMatchesJdkBase64() {
+        Random random = new Random(42);
+        for (int n = 0; n <= MAX_LENGTH; n = next(n)) {
+            byte[] data = randomBytes(random, n);
+            String expected = expected(data);
+            String actual = DataUriEncoder.encode(data, MIME_TYPE);
+            assertEquals("长度" + n + "的编码结果应一致", expected, actual);
+            assertEquals("长度" + n + "的预计长度应一致", expected.length(), DataUriEncoder.length(n, MIME_TYPE));
+        }
+    }
+
+    @Test
+    public void testMixedStreamWritesMatchJdkBase64() throws IOException {
+        Random random = new Random(7);
+        for (int n = 0; n <= MAX_LENGTH; n = next(n)) {
+            byte[] data = randomBytes(random, n);
+            StringWriter writer = new StringWriter();
+            try (OutputStream out = DataUriEncoder.open(writer, MIME_TYPE)) {
+                // 单字节写入与随机长度的批量写入交替进行,批量写入使用非零偏移
+                int pos = 0;
+                while (pos < n) {
+                    if (random.nextInt(3) == 0) {
+                        out.write(data[pos++]);
+                    } else {
+                        int len = Math.min(n - pos, random.nextInt(10) + 1);
+                        byte[] chunk = new byte[len + 3];
+                        System.arraycopy(data, pos, chunk, 2, len);
+                        out.write(chunk, 2, len);
+                        pos += len;
+                    }
+                }
+            }
+            assertEquals("长度" + n + "的流式编码结果应一致", expected(data), writer.toString());
+        }
+    }
+
+    private static int next(int n) {
+        return n < 64 ? n + 1 : n + 97;
+    }
+
+    private static byte[] randomBytes(Random random, int n) {
+        byte[] data = new byte[n];
+        random.nextBytes(data);
+        return data;
+    }
+
+    private static String expected(byte[] data) {
+        return "data:" + MIME_TYPE + ";base64," + Base64.getEncoder().encodeToString(data);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.core.CaptchaType;
+import io.github.purecaptcha.util.CaptchaPalette;
+import io.github.purecaptcha.util.ColorUtil;
+import io.github.purecaptcha.util.PngEncoder;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * PNG 编码器测试
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class PngEncoderTest {
+
+    @Test
+    public void testRgbRoundTrip() throws IOException {
+        BufferedImage image = createTestImage(BufferedImage.TYPE_INT_RGB);
+
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            byte[] png = PngEncoder.encode(image, PngEncoder.DEFAULT_LEVEL, filter);
+            assertSamePixels("RGB " + filter, image, ImageIO.read(new ByteArrayInputStream(png)));
+        }
+    }
+
+    @Test
+    public void testArgbRoundTrip() throws IOException {
+        BufferedImage image = createTestImage(BufferedImage.TYPE_INT_ARGB);
+
+        for (PngEncoder.Filter filter : PngEncoder.Filter.values()) {
+            byte[] png = PngEncoder.encode(image, PngEncoder.DEFAULT_LEVEL, filter);
+            assertSamePixels("ARGB " + filter, image, ImageIO.read(new ByteArrayInputStream(png)));
+        }
+    }
+
+    @Test
+    public void testIndexedKeepsKnownColors() throws IOException {
+        Set<Integer> known = new HashSet<>();
+        known.add(Color.WHITE.getRGB());
+        for (Color color : ColorUtil.getVibrantColors()) {
+            known.add(color.getRGB());
+        }
+
+        long truecolorBytes = 0;
+        long indexedBytes = 0;
+        for (int i = 0; i < 10; i++) {
+            BufferedImage image = CaptchaFactory.create(CaptchaType.ALPHANUMERIC).getImage();
+            byte[] png = PngEncoder.encode(image);
+            byte[] indexed = PngEncoder.encodeIndexed(image);
+            truecolorBytes += png.length;
+            indexedBytes += indexed.length;
+
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(indexed));
+            assertTrue("应解码为索引色图像", decoded.getColorModel() instanceof IndexColorModel);
+            assertTrue("调色板不应超过" + CaptchaPalette.MAX_COLORS + "色",
+                    ((IndexColorModel) decoded.getColorModel()).getMapSize() <= CaptchaPalette.MAX_COLORS);
+
+            // 背景色和鲜艳色必须原样保留,只有抗锯齿过渡色允许近似
+            int exact = 0;
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int rgb = image.getRGB(x, y);
+                    if (known.contains(rgb)) {
+                        assertEquals("已知颜色像素(" + x + "," + y + ")应无损", rgb, decoded.getRGB(x, y));
+                        exact++;
+                    }
+                }
+            }
+            assertTrue("应包含背景色像素", exact > 0);
+        }
+
+        // PNG-8 体积应明显小于真彩色(实测约为一半)
+        assertTrue("索引色体积应至少减少三分之一: " + indexedBytes + " / " + truecolorBytes,
+                indexedBytes * 3 < truecolorBytes * 2);
+    }
+
+    /**
+     * 创建包含渐变、抗锯齿图形和随机噪点的测试图像(奇数尺寸,覆盖各滤波方式的边界)
+     */
+    private static BufferedImage createTestImage(int type) {
+        BufferedImage image = new BufferedImage(101, 37, type);
+        Graphics2D g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setPaint(new GradientPaint(0, 0, new Color(20, 120, 240, 255), 101, 37, new Color(250, 90, 30, 90)));
+        g2d.fillRect(0, 0, 101, 37);
+        g2d.setColor(new Color(30, 200, 120, 180));
+        g2d.fillOval(10, 5, 50, 25);
+        g2d.dispose();
+
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            image.setRGB(random.nextInt(101), random.nextInt(37), random.nextInt());
+        }
+        return image;
+    }
+
+    private static void assertSamePixels(String message, BufferedImage expected, BufferedImage actual) {
+        assertNotNull(message + " 应能被 ImageIO 解码", actual);
+        assertEquals(message + " 宽度应一致", expected.getWidth(), actual.getWidth());
+        assertEquals(message + " 高度应一致", expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(message + " 像素(" + x + "," + y + ")应一致",
+                        expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+}
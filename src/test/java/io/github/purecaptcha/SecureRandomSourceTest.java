@@ -0,0 +1,151 @@
+package io.github.purecaptcha;
+
+import io.github.purecaptcha.util.RandomSource;
+import io.github.purecaptcha.util.SecureRandomSource;
+import org.junit.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * 秘密随机数来源测试
+ * <p>
+ * 均匀性检验使用卡方检验,临界值取显著性约 1e-5,正常实现误报概率可以忽略。
+ *
+ * @author PureCaptcha
+ * @version 1.0.0
+ */
+public class SecureRandomSourceTest {
+
+    // 标准正态分布上 1e-5 分位点
+    private static final double Z_CRITICAL = 4.265;
+
+    @Test
+    public void testNextIntUniform() {
+        RandomSource random = new SecureRandomSource();
+
+        // 2:整字节;36:默认字符集;129:单字节拒绝率最高;1000:双字节;70000:三字节
+        int[] bounds = {2, 10, 36, 129, 256, 1000, 70000};
+        for (int bound : bounds) {
+            int buckets = Math.min(bound, 1000);
+            long[] counts = new long[buckets];
+            int samples = buckets * 200;
+            for (int i = 0; i < samples; i++) {
+                int value = random.nextInt(bound);
+                assertTrue("取值应在 [0, " + bound + ") 内: " + value, value >= 0 && value < bound);
+                counts[(int) ((long) value * buckets / bound)]++;
+            }
+            assertUniform("nextInt(" + bound + ")", counts, samples);
+        }
+    }
+
+    @Test
+    public void testNextIntRangeUniform() {
+        RandomSource random = new SecureRandomSource();
+        long[] counts = new long[20];
+        int samples = 20000;
+        for (int i = 0; i < samples; i++) {
+            int value = random.nextInt(1, 20);
+            assertTrue("取值应在 [1, 20] 内: " + value, value >= 1 && value <= 20);
+            counts[value - 1]++;
+        }
+        assertUniform("nextInt(1, 20)", counts, samples);
+    }
+
+    @Test
+    public void testNextCharUniform() {
+        RandomSource random = new SecureRandomSource();
+        String charset = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789";
+        long[] counts = new long[charset.length()];
+        int samples = charset.length() * 500;
+        for (int i = 0; i < samples; i++) {
+            counts[charset.indexOf(random.nextChar(charset))]++;
+        }
+        assertUniform("nextChar", counts, samples);
+    }
+
+    @Test
+    public void testNextFloatUniform() {
+        RandomSource random = new SecureRandomSource();
+        long[] counts = new long[64];
+        int samples = 64 * 500;
+        for (int i = 0; i < samples; i++) {
+            float value = random.nextFloat();
+            assertTrue("取值应在 [0, 1) 内: " + value, value >= 0f && value < 1f);
+            counts[(int) (value * 64)]++;
+        }
+        assertUniform("nextFloat", counts, samples);
+    }
+
+    @Test
+    public void testNextBooleanUniform() {
+        RandomSource random = new SecureRandomSource();
+        long[] counts = new long[2];
+        int samples = 20000;
+        for (int i = 0; i < samples; i++) {
+            counts[random.nextBoolean() ? 1 : 0]++;
+        }
+        assertUniform("nextBoolean", counts, samples);
+    }
+
+    @Test
+    public void testConsecutiveValuesIndependent() {
+        // 相邻两次取值组成的二元组也应均匀分布
+        RandomSource random = new SecureRandomSource();
+        long[] counts = new long[36 * 36];
+        int samples = counts.length * 50;
+        for (int i = 0; i < samples; i++) {
+            counts[random.nextInt(36) * 36 + random.nextInt(36)]++;
+        }
+        assertUniform("相邻取值", counts, samples);
+    }
+
+    @Test
+    public void testBlockFetch() {
+        CountingSecureRandom counting = new CountingSecureRandom();
+        RandomSource random = new SecureRandomSource(counting, 4096);
+
+        // 1000个5位验证码的答案字符
+        for (int i = 0; i < 5000; i++) {
+            random.nextInt(36);
+        }
+        assertTrue("应按块获取随机字节,实际调用次数: " + counting.calls, counting.calls <= 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBound() {
+        new SecureRandomSource().nextInt(0);
+    }
+
+    /**
+     * 卡方检验:各桶期望频数相同
+     */
+    private static void assertUniform(String name, long[] counts, int samples) {
+        double expected = (double) samples / counts.length;
+        double chiSquare = 0;
+        for (long count : counts) {
+            double diff = count - expected;
+            chiSquare += diff * diff / expected;
+        }
+
+        // Wilson-Hilferty 近似计算卡方分布临界值
+        int k = counts.length - 1;
+        double t = 2.0 / (9.0 * k);
+        double critical = k * Math.pow(1 - t + Z_CRITICAL * Math.sqrt(t), 3);
+        assertTrue(name + " 分布不均匀: χ²=" + chiSquare + ", 临界值=" + critical, chiSquare < critical);
+    }
+
+    /**
+     * 记录 nextBytes 调用次数的 SecureRandom
+     */
+    private static class CountingSecureRandom extends SecureRandom {
+        int calls;
+
+        @Override
+        public synchronized void nextBytes(byte[] bytes) {
+            calls++;
+            super.nextBytes(bytes);
+        }
+    }
+}